@@ -0,0 +1,68 @@
+package com.cn.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @Description JMH 启动入口
+ *
+ * 每个线程数单独运行一次，结果以 JSON 写入 target/jmh/{name}-t{threads}.json，便于与历史结果对比；
+ * 默认开启 {@link GCProfiler}，结果中的 gc.alloc.rate.norm 即每次操作的分配字节数
+ *
+ * 用法: java -cp target/classes:... com.cn.benchmark.JmhRunner [include regex] [threads...]
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/20 14:05
+ * @Version V1.0
+ */
+public final class JmhRunner {
+
+    public static final String OUTPUT_DIR = "target/jmh";
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        int[] threads = {1};
+        if (args.length > 1) {
+            threads = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                threads[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        run(include, include.replaceAll("[^A-Za-z0-9]", ""), threads);
+    }
+
+    /**
+     * @Description: 依次按 threads 中的线程数运行匹配 include 的基准
+     * @author Levi.Ding
+     * @date 2026/10/20 14:10
+     * @param include : 基准类/方法正则
+     * @param name : 结果文件名前缀
+     * @param threads : 生产者线程数
+     * @return : java.util.Collection<org.openjdk.jmh.results.RunResult>
+     */
+    public static Collection<RunResult> run(String include, String name, int... threads) throws RunnerException {
+        new File(OUTPUT_DIR).mkdirs();
+        List<RunResult> results = new ArrayList<>();
+        for (int t : threads) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(t)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(OUTPUT_DIR + "/" + (name.isEmpty() ? "all" : name) + "-t" + t + ".json")
+                    .build();
+            results.addAll(new Runner(options).run());
+        }
+        return results;
+    }
+}
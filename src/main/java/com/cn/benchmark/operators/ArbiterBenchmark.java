@@ -0,0 +1,103 @@
+package com.cn.benchmark.operators;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.operators.Arbiters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description {@link Arbiters} 与内置 switchIfEmpty / onErrorResume 对比
+ *
+ * 1、switchIfEmpty: fallbacks 个空 Publisher 之后才是有数据的 Publisher，内置实现为链式 switchIfEmpty
+ * 2、onErrorResume: 源发出 elements 个元素后异常，切换到备用 Publisher
+ *
+ * 每次操作都会重新订阅，分配情况看 GCProfiler 的 gc.alloc.rate.norm
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 11:20
+ * @Version V1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ArbiterBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(ArbiterBenchmark.class.getSimpleName(), "arbiter", 1);
+    }
+
+    @Param({"1", "8", "64"})
+    public int fallbacks;
+
+    @Param({"1", "32"})
+    public int elements;
+
+    Flux<Integer> builtInSwitch;
+
+    Flux<Integer> arbiterSwitch;
+
+    Flux<Integer> builtInResume;
+
+    Flux<Integer> arbiterResume;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Flux<Integer> data = Flux.range(0, elements);
+
+        Flux<Integer> chain = Flux.empty();
+        for (int i = 1; i < fallbacks; i++) {
+            chain = chain.switchIfEmpty(Flux.empty());
+        }
+        builtInSwitch = chain.switchIfEmpty(data);
+
+        Publisher<Integer>[] sources = new Publisher[fallbacks + 1];
+        for (int i = 0; i < fallbacks; i++) {
+            sources[i] = Flux.empty();
+        }
+        sources[fallbacks] = data;
+        arbiterSwitch = Arbiters.firstNonEmpty(sources);
+
+        Flux<Integer> failing = data.concatWith(Flux.error(new IllegalStateException("boom")));
+        builtInResume = failing.onErrorResume(e -> data);
+        arbiterResume = Arbiters.onErrorResume(failing, e -> data, 1);
+    }
+
+    @Benchmark
+    public void builtInSwitchIfEmpty(Blackhole bh) {
+        builtInSwitch.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void arbiterSwitchIfEmpty(Blackhole bh) {
+        arbiterSwitch.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void builtInOnErrorResume(Blackhole bh) {
+        builtInResume.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void arbiterOnErrorResume(Blackhole bh) {
+        arbiterResume.subscribe(bh::consume);
+    }
+}
@@ -0,0 +1,159 @@
+package com.cn.benchmark.operators;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.operators.fusion.FusedOperators;
+import com.cn.demo.operators.fusion.FusedStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description {@link FusedOperators} 与普通自定义阶段对比
+ *
+ * range -> 自定义 map + filter 阶段 -> concatMap(Flux::just)
+ *
+ * 1、unfused: 自定义阶段为普通 CoreSubscriber，concatMap 无法与 range 融合，需要自己的队列 (prefetch 32) 并且按批次向上请求，
+ *             range 也只能逐个 onNext，被过滤的元素各需要一次 request(1)
+ * 2、fused:   自定义阶段透传 QueueSubscription，concatMap 与 range 走 SYNC 融合，直接 poll，没有中间队列和 request 往返
+ *
+ * 注) publishOn 请求融合时带 THREAD_BARRIER，与内置 map 一样会被拒绝，所以这里不使用 publishOn
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 15:00
+ * @Version V1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FusionBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(FusionBenchmark.class.getSimpleName(), "fusion", 1);
+    }
+
+    @Param({"1000", "100000"})
+    public int count;
+
+    Flux<Integer> unfused;
+
+    Flux<Integer> fused;
+
+    @Setup
+    public void setup() {
+        FusedStage<Integer, Integer> stage = FusedStage.<Integer, Integer>map(i -> i + 1)
+                .then(FusedStage.filter(i -> (i & 1) == 0));
+
+        unfused = Flux.range(0, count)
+                .transform(f -> new UnfusedStageFlux<>(f, stage))
+                .concatMap(Flux::just);
+        fused = Flux.range(0, count)
+                .transform(FusedOperators.stage(stage))
+                .concatMap(Flux::just);
+    }
+
+    @Benchmark
+    public void unfused(Blackhole bh) {
+        unfused.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    public void fused(Blackhole bh) {
+        fused.subscribe(bh::consume);
+    }
+
+    /**
+     * 与 BaseSubscriber 一样不参与融合的 map + filter 阶段
+     */
+    static final class UnfusedStageFlux<I, O> extends Flux<O> {
+
+        final Publisher<? extends I> source;
+
+        final FusedStage<? super I, ? extends O> stage;
+
+        UnfusedStageFlux(Publisher<? extends I> source, FusedStage<? super I, ? extends O> stage) {
+            this.source = source;
+            this.stage = stage;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super O> actual) {
+            source.subscribe(new UnfusedStageSubscriber<>(actual, stage));
+        }
+    }
+
+    static final class UnfusedStageSubscriber<I, O> implements CoreSubscriber<I>, Subscription {
+
+        final CoreSubscriber<? super O> actual;
+
+        final FusedStage<? super I, ? extends O> stage;
+
+        Subscription s;
+
+        UnfusedStageSubscriber(CoreSubscriber<? super O> actual, FusedStage<? super I, ? extends O> stage) {
+            this.actual = actual;
+            this.stage = stage;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(I t) {
+            O o = stage.apply(t);
+            if (o == null) {
+                s.request(1);
+            }
+            else {
+                actual.onNext(o);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.cn.benchmark.propagation;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.operators.fusion.FusedStage;
+import com.cn.demo.propagation.restore.CachedContextRestore;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 每个元素的 ThreadLocal 恢复开销
+ *
+ * 向全局 ContextRegistry 注册 accessors 个 ThreadLocalAccessor，Context 中放入对应的值(相当于 contextCapture 的结果)，
+ * 对 {@link #ELEMENTS} 个元素做一次 +1，结果为每个元素的平均耗时
+ *
+ * 1、baseline: map，不恢复
+ * 2、handle: 内置 handle()，每个元素执行 ContextPropagation.contextRestoreForHandle
+ * 3、cachedPerElement: {@link CachedContextRestore}，上游 hide() 阻止融合，逐个元素 open/close
+ * 4、cachedFused: {@link CachedContextRestore}，上游 range SYNC 融合，每个请求批次 open/close 一次
+ *
+ * 注) accessor 注册在全局 ContextRegistry 上无法移除，依赖 @Fork 保证每组参数在新的 JVM 中运行
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 18:40
+ * @Version V1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextRestoreBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(ContextRestoreBenchmark.class.getSimpleName(), "context-restore", 1);
+    }
+
+    static final int ELEMENTS = 1000;
+
+    @Param({"1", "5", "20"})
+    public int accessors;
+
+    Flux<Integer> baseline;
+
+    Flux<Integer> handle;
+
+    Flux<Integer> cachedPerElement;
+
+    Flux<Integer> cachedFused;
+
+    @Setup
+    public void setup() {
+        ContextRegistry registry = ContextRegistry.getInstance();
+        Context context = Context.empty();
+        for (int i = 0; i < accessors; i++) {
+            BenchThreadLocalAccessor accessor = new BenchThreadLocalAccessor("bench.accessor." + i);
+            registry.registerThreadLocalAccessor(accessor);
+            context = context.put(accessor.key(), "value-" + i);
+        }
+        Context ctx = context;
+
+        baseline = Flux.range(0, ELEMENTS)
+                .map(v -> v + 1)
+                .contextWrite(ctx);
+        handle = Flux.range(0, ELEMENTS)
+                .<Integer>handle((v, sink) -> sink.next(v + 1))
+                .contextWrite(ctx);
+        cachedPerElement = Flux.range(0, ELEMENTS)
+                .hide()
+                .transform(CachedContextRestore.<Integer, Integer>stage(FusedStage.map(v -> v + 1)))
+                .contextWrite(ctx);
+        cachedFused = Flux.range(0, ELEMENTS)
+                .transform(CachedContextRestore.<Integer, Integer>stage(FusedStage.map(v -> v + 1)))
+                .contextWrite(ctx);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void baseline(Blackhole bh) {
+        baseline.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void handle(Blackhole bh) {
+        handle.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void cachedPerElement(Blackhole bh) {
+        cachedPerElement.subscribe(bh::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void cachedFused(Blackhole bh) {
+        cachedFused.subscribe(bh::consume);
+    }
+
+    static final class BenchThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+        final String key;
+
+        final ThreadLocal<String> threadLocal = new ThreadLocal<>();
+
+        BenchThreadLocalAccessor(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return threadLocal.get();
+        }
+
+        @Override
+        public void setValue(String value) {
+            threadLocal.set(value);
+        }
+
+        @Override
+        public void reset() {
+            threadLocal.remove();
+        }
+    }
+}
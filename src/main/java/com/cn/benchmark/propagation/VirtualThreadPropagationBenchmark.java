@@ -0,0 +1,148 @@
+package com.cn.benchmark.propagation;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.propagation.accessor.ScopedContextAccessor;
+import com.cn.demo.schedulers.VirtualThreads;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.util.context.Context;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 平台线程与虚拟线程上的上下文恢复开销
+ *
+ * 每个任务执行一次 Reactor 在 handle/tap 中使用的 ContextSnapshot.setAllThreadLocalsFrom(context)，读取所有值后关闭 Scope
+ *
+ * 1、platform: 固定大小的平台线程池，ThreadLocalMap 在线程上复用
+ * 2、virtual: 每个任务一个新的虚拟线程，每次都要创建 ThreadLocalMap (JDK 21 以下退化为平台线程的 cachedThreadPool，见 {@link VirtualThreads})
+ * 3、threadLocal: 每个 key 一个 ThreadLocal (与 DefaultThreadLocalAccessor 相同)
+ * 4、scoped: {@link ScopedContextAccessor}，所有 key 共用一个 ThreadLocal
+ *
+ * 结果为每个任务(提交 + 恢复 + 完成)的平均耗时，两种 accessor 在同一种线程上的差值即上下文恢复的开销差异
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 11:00
+ * @Version V1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadPropagationBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(VirtualThreadPropagationBenchmark.class.getSimpleName(), "virtual-thread-propagation", 1);
+    }
+
+    static final int TASKS = 1000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"threadLocal", "scoped"})
+    public String accessor;
+
+    @Param({"1", "5"})
+    public int keys;
+
+    ExecutorService executor;
+
+    ContextRegistry registry;
+
+    Context context;
+
+    ThreadLocalAccessor<?>[] accessors;
+
+    @Setup
+    public void setup() {
+        executor = "virtual".equals(threads)
+                ? VirtualThreads.newThreadPerTaskExecutor("bench-virtual")
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        registry = new ContextRegistry().loadContextAccessors();
+        accessors = new ThreadLocalAccessor[keys];
+        Context ctx = Context.empty();
+        for (int i = 0; i < keys; i++) {
+            String key = "bench.key." + i;
+            accessors[i] = "scoped".equals(accessor) ? new ScopedContextAccessor<String>(key) : new ThreadLocalBackedAccessor(key);
+            registry.registerThreadLocalAccessor(accessors[i]);
+            ctx = ctx.put(key, "value-" + i);
+        }
+        context = ctx;
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void restore(Blackhole bh) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(() -> {
+                try (ContextSnapshot.Scope ignored = ContextSnapshot.setAllThreadLocalsFrom(context, registry)) {
+                    for (ThreadLocalAccessor<?> a : accessors) {
+                        bh.consume(a.getValue());
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+
+    static final class ThreadLocalBackedAccessor implements ThreadLocalAccessor<String> {
+
+        final String key;
+
+        final ThreadLocal<String> threadLocal = new ThreadLocal<>();
+
+        ThreadLocalBackedAccessor(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public Object key() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return threadLocal.get();
+        }
+
+        @Override
+        public void setValue(String value) {
+            threadLocal.set(value);
+        }
+
+        @Override
+        public void reset() {
+            threadLocal.remove();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.cn.benchmark.schedulers;
+
+import com.cn.demo.schedulers.AdaptiveElasticScheduler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description {@link AdaptiveElasticScheduler} 在合成阻塞负载下的调节过程
+ *
+ * 开环负载: 每毫秒按 rate 提交任务，不等待完成，观察每个采样周期的 cap/吞吐/等待
+ *
+ * 1、io:        每个任务阻塞 20ms，2000/s 需要约 40 个线程，cap 应逐步扩到 40 左右并且等待回落到 targetWait 以下
+ * 2、saturated: 任务需要获取只有 16 个许可的下游资源并持有 20ms，超过 16 个线程后吞吐不再提升，cap 应停在 16 附近而不是一直扩到上限
+ * 3、idle:      50/s，线程大量空闲，cap 应逐步缩回 minThreads
+ *
+ * 三个阶段共用一个调度器，观察的就是 cap 从上一阶段的值开始调整；上一阶段停止提交后先等积压的任务执行完，
+ * 否则 saturated 阶段留下的几千个排队任务会让 idle 阶段一直处于拥塞状态，cap 无法收缩
+ *
+ * 不是 JMH 基准，直接运行 main，每个阶段 PHASE_SECONDS 秒
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/23 17:00
+ * @Version V1.0
+ */
+@Slf4j
+public class AdaptiveElasticSimulation {
+
+    static final int PHASE_SECONDS = 15;
+
+    static final int MIN_THREADS = 4;
+
+    static final int DRAIN_SECONDS = 60;
+
+    public static void main(String[] args) throws InterruptedException {
+        AdaptiveElasticScheduler scheduler = AdaptiveElasticScheduler.builder("adaptive")
+                .threads(MIN_THREADS, 200)
+                .step(4)
+                .targetWait(Duration.ofMillis(5))
+                .sampleInterval(Duration.ofMillis(500))
+                .keepAlive(Duration.ofSeconds(5))
+                .onSample(s -> log.info("{}", s))
+                .build();
+        ScheduledExecutorService generator = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Semaphore unlimited = new Semaphore(Integer.MAX_VALUE);
+            Semaphore downstream = new Semaphore(16);
+
+            int io = run("io", scheduler, generator, 2000, 20, unlimited);
+            int saturated = run("saturated", scheduler, generator, 2000, 20, downstream);
+            int idle = run("idle", scheduler, generator, 50, 20, unlimited);
+
+            log.info("==== cap io={} saturated={} idle={} : saturated below io {}, idle contracted to minThreads {} ====",
+                    io, saturated, idle, saturated < io, idle == MIN_THREADS);
+            if (idle >= saturated) {
+                log.warn("cap did not contract in the idle phase: {} -> {}", saturated, idle);
+            }
+        }
+        finally {
+            generator.shutdownNow();
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * @Description: 按 ratePerSecond 提交阻塞 blockMillis 的任务，每个任务执行期间持有 resource 的一个许可，
+     * 停止提交后等待积压的任务执行完再返回
+     * @author Levi.Ding
+     * @date 2026/10/23 17:10
+     * @return : int 阶段结束(排空之前)时的 cap
+     */
+    static int run(String phase, AdaptiveElasticScheduler scheduler, ScheduledExecutorService generator,
+                    int ratePerSecond, long blockMillis, Semaphore resource) throws InterruptedException {
+        log.info("==== phase {} : cap={}, rate={}/s, block={}ms, permits={} ====", phase, scheduler.currentCap(), ratePerSecond, blockMillis,
+                resource.availablePermits() == Integer.MAX_VALUE ? "unlimited" : resource.availablePermits());
+        LongAdder rejected = new LongAdder();
+        Runnable task = () -> {
+            try {
+                resource.acquire();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(blockMillis);
+                }
+                finally {
+                    resource.release();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        //每毫秒提交的任务数，余数按累加器分摊
+        long[] carry = new long[1];
+        ScheduledFuture<?> load = generator.scheduleAtFixedRate(() -> {
+            carry[0] += ratePerSecond;
+            long n = carry[0] / 1000;
+            carry[0] %= 1000;
+            for (long i = 0; i < n; i++) {
+                try {
+                    scheduler.schedule(task);
+                }
+                catch (RejectedExecutionException e) {
+                    rejected.increment();
+                }
+            }
+        }, 0L, 1L, TimeUnit.MILLISECONDS);
+        TimeUnit.SECONDS.sleep(PHASE_SECONDS);
+        load.cancel(false);
+        int cap = scheduler.currentCap();
+        log.info("==== phase {} done : cap={}, rejected={} ====", phase, cap, rejected.sum());
+        drain(phase, scheduler);
+        return cap;
+    }
+
+    /**
+     * @Description: 等待最近一次采样中排队与执行中的任务都为 0，最多等待 DRAIN_SECONDS 秒
+     * @author Levi.Ding
+     * @date 2026/10/23 17:20
+     * @return : void
+     */
+    static void drain(String phase, AdaptiveElasticScheduler scheduler) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(DRAIN_SECONDS);
+        for (;;) {
+            AdaptiveElasticScheduler.Sample s = scheduler.lastSample();
+            if (s != null && s.queued() == 0 && s.active() == 0) {
+                log.info("==== phase {} drained in {}ms : cap={} ====", phase,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), scheduler.currentCap());
+                return;
+            }
+            if (System.nanoTime() - deadline > 0L) {
+                log.warn("phase {} not drained after {}s : {}", phase, DRAIN_SECONDS, s);
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(100L);
+        }
+    }
+}
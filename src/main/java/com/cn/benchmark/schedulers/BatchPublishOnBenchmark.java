@@ -0,0 +1,128 @@
+package com.cn.benchmark.schedulers;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.schedulers.BatchPublishOn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @Description {@link BatchPublishOn} 与内置 publishOn 的吞吐/延迟曲线
+ *
+ * windowMicros = 0 为内置 publishOn(scheduler)，此时 maxBatch 不生效；其余为 BatchPublishOn(scheduler, maxBatch, windowMicros)
+ *
+ * 1、throughput: 生产者线程逐个 onNext (hide 关闭融合)，消费线程频繁追上生产者，内置实现几乎每个元素唤醒一次；
+ *                结果为每毫秒通过的元素数，window/maxBatch 越大唤醒越少、吞吐越高，到唤醒不再是瓶颈后趋于平稳
+ * 2、latency:    单个元素 emit 到下游收到的往返时间 (SampleTime)，低速率下元素凑不满 maxBatch，
+ *                BatchPublishOn 的延迟约为 window + 一次唤醒，内置实现只有一次唤醒
+ *
+ * 两组结果放在一起即为选择 window 的依据: 延迟预算允许的最大 window 对应的吞吐
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/24 11:00
+ * @Version V1.0
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchPublishOnBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(BatchPublishOnBenchmark.class.getSimpleName(), "batch-publish-on", 1);
+    }
+
+    static final int COUNT = 100_000;
+
+    @Param({"0", "20", "100", "1000"})
+    public long windowMicros;
+
+    @Param({"32", "256"})
+    public int maxBatch;
+
+    Scheduler producer;
+
+    Scheduler consumer;
+
+    Flux<Integer> stream;
+
+    Sinks.Many<Long> sink;
+
+    Disposable roundTrip;
+
+    volatile long received;
+
+    long sent;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        producer = Schedulers.newSingle("bench-producer");
+        consumer = Schedulers.newSingle("bench-consumer");
+
+        stream = Flux.range(0, COUNT)
+                .hide()
+                .subscribeOn(producer)
+                .transform(this.<Integer>publishOn());
+
+        sent = 0L;
+        received = 0L;
+        sink = Sinks.many().unicast().onBackpressureBuffer();
+        roundTrip = sink.asFlux()
+                .transform(this.<Long>publishOn())
+                .subscribe(v -> received = v);
+    }
+
+    <T> Function<Flux<T>, Flux<T>> publishOn() {
+        return windowMicros == 0L
+                ? f -> f.publishOn(consumer)
+                : BatchPublishOn.publishOn(consumer, maxBatch, Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(windowMicros)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        roundTrip.dispose();
+        producer.dispose();
+        consumer.dispose();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(COUNT)
+    public Integer throughput() {
+        return stream.blockLast();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long latency() {
+        long v = ++sent;
+        sink.emitNext(v, Sinks.EmitFailureHandler.FAIL_FAST);
+        while (received != v) {
+            //忙等，避免 park 的唤醒延迟计入结果
+        }
+        return v;
+    }
+}
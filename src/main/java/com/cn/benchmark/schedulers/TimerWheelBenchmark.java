@@ -0,0 +1,119 @@
+package com.cn.benchmark.schedulers;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.schedulers.TimerWheelScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 1M 个未到期定时器下 {@link TimerWheelScheduler} 与 ScheduledThreadPoolExecutor 对比
+ *
+ * Setup 时预先放入 outstanding 个 10 ~ 20 分钟后才到期的定时器，模拟大量 delayElements/timeout 在途
+ *
+ * 1、single:     Schedulers.newSingle，单个 ScheduledThreadPoolExecutor (removeOnCancel)，插入/取消为加锁的 O(log n) 堆操作
+ * 2、parallel:   Schedulers.newParallel，按 Worker 分散到多个 ScheduledThreadPoolExecutor，每个堆 n / 核心数
+ * 3、timerWheel: {@link TimerWheelScheduler}，插入/取消 O(1)，到期后转交给 Schedulers.parallel()
+ *
+ * scheduleCancel: 调度一个 1 ~ 1000ms 的定时器并立即取消，即 timeout() 在元素按时到达时的路径
+ * expire:         调度 EXPIRE_BATCH 个 1ms 的定时器并等待全部执行，包含到期转交的开销
+ *
+ * 多线程结果 (JmhRunner 线程数 4) 反映锁竞争
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/24 15:40
+ * @Version V1.0
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class TimerWheelBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(TimerWheelBenchmark.class.getSimpleName(), "timer-wheel", 1, 4);
+    }
+
+    static final int EXPIRE_BATCH = 10_000;
+
+    static final Runnable NOOP = () -> {
+    };
+
+    @Param({"single", "parallel", "timerWheel"})
+    public String scheduler;
+
+    @Param({"1000000"})
+    public int outstanding;
+
+    Scheduler instance;
+
+    Disposable.Composite background;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (scheduler) {
+            case "single":
+                instance = Schedulers.newSingle("bench-single");
+                break;
+            case "parallel":
+                instance = Schedulers.newParallel("bench-parallel");
+                break;
+            default:
+                instance = TimerWheelScheduler.create("bench-wheel", Duration.ofMillis(1), Schedulers.parallel());
+        }
+        background = Disposables.composite();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < outstanding; i++) {
+            long delay = TimeUnit.MINUTES.toMillis(10) + random.nextLong(TimeUnit.MINUTES.toMillis(10));
+            background.add(instance.schedule(NOOP, delay, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        background.dispose();
+        instance.dispose();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void scheduleCancel() {
+        long delay = 1L + ThreadLocalRandom.current().nextLong(1000L);
+        instance.schedule(NOOP, delay, TimeUnit.MILLISECONDS).dispose();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(EXPIRE_BATCH)
+    public void expire() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(EXPIRE_BATCH);
+        Runnable countDown = latch::countDown;
+        for (int i = 0; i < EXPIRE_BATCH; i++) {
+            instance.schedule(countDown, 1L, TimeUnit.MILLISECONDS);
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,88 @@
+package com.cn.benchmark.schedulers;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.schedulers.VirtualThreadScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 10k 个并发阻塞调用: {@link VirtualThreadScheduler} 与 boundedElastic 对比
+ *
+ * 每次操作通过 flatMap(concurrency = calls) 同时发起 calls 个 subscribeOn(scheduler) 的阻塞调用(Thread.sleep)，
+ * 全部结束后返回，结果为一批调用的总耗时
+ *
+ * 1、boundedElastic: 默认上限 CPU 核心数 x 10 个线程，其余任务在 BoundedState 中排队，总耗时约为 calls / maxThreads 个 sleep
+ * 2、virtual: 每个调用一个虚拟线程，maxConcurrency = calls，理想情况下总耗时接近一个 sleep
+ *
+ * JDK 21 以下 virtual 会退化为 calls 个平台线程，结果只能说明线程数上限的影响
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 16:30
+ * @Version V1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadSchedulerBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(VirtualThreadSchedulerBenchmark.class.getSimpleName(), "virtual-thread-scheduler", 1);
+    }
+
+    @Param({"boundedElastic", "virtual"})
+    public String scheduler;
+
+    @Param({"10000"})
+    public int calls;
+
+    @Param({"1", "10"})
+    public long sleepMillis;
+
+    Scheduler instance;
+
+    Flux<Integer> pipeline;
+
+    @Setup
+    public void setup() {
+        instance = "virtual".equals(scheduler)
+                ? VirtualThreadScheduler.create("bench-virtual", calls)
+                : Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "bench-elastic");
+        pipeline = Flux.range(0, calls)
+                .flatMap(i -> Mono.fromCallable(() -> blockingCall(i)).subscribeOn(instance), calls);
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.dispose();
+    }
+
+    Integer blockingCall(Integer i) throws InterruptedException {
+        Thread.sleep(sleepMillis);
+        return i;
+    }
+
+    @Benchmark
+    public Integer concurrentBlockingCalls() {
+        return pipeline.blockLast();
+    }
+}
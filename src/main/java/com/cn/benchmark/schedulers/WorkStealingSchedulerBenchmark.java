@@ -0,0 +1,96 @@
+package com.cn.benchmark.schedulers;
+
+import com.cn.benchmark.JmhRunner;
+import com.cn.demo.schedulers.WorkStealingScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description {@link WorkStealingScheduler} 与 Schedulers.newParallel 在 parallel().runOn() 上的对比
+ *
+ * rails = 线程数 x 4，newParallel 按轮询把第 k 个 rail 绑定到第 k % threads 个线程
+ * 1、uniform: 每个元素耗时相同
+ * 2、skewed: (i % rails) % threads == 0 的元素耗时为其他元素的 heavyFactor 倍，这些元素集中在绑定到同一个线程的 rail 上，
+ *    newParallel 中该线程成为瓶颈，工作窃取时空闲线程可以执行这些 rail 的后续批次
+ *
+ * 结果为处理 elements 个元素的总耗时
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 17:50
+ * @Version V1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkStealingSchedulerBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(WorkStealingSchedulerBenchmark.class.getSimpleName(), "work-stealing-scheduler", 1);
+    }
+
+    static final int ELEMENTS = 20_000;
+
+    static final long BASE_TOKENS = 1_000;
+
+    @Param({"parallel", "workStealing"})
+    public String scheduler;
+
+    @Param({"uniform", "skewed"})
+    public String cost;
+
+    @Param({"20"})
+    public int heavyFactor;
+
+    Scheduler instance;
+
+    Flux<Integer> pipeline;
+
+    @Setup
+    public void setup() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int rails = threads * 4;
+        instance = "workStealing".equals(scheduler)
+                ? WorkStealingScheduler.create("bench-ws", threads)
+                : Schedulers.newParallel("bench-parallel", threads);
+        boolean skewed = "skewed".equals(cost);
+        pipeline = Flux.range(0, ELEMENTS)
+                .parallel(rails)
+                .runOn(instance)
+                .map(i -> {
+                    boolean heavy = skewed && (i % rails) % threads == 0;
+                    Blackhole.consumeCPU(heavy ? BASE_TOKENS * heavyFactor : BASE_TOKENS);
+                    return i;
+                })
+                .sequential();
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.dispose();
+    }
+
+    @Benchmark
+    public Integer parallelRails() {
+        return pipeline.blockLast();
+    }
+}
@@ -0,0 +1,181 @@
+package com.cn.benchmark.sinks;
+
+import com.cn.benchmark.JmhRunner;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description Sinks.many() 各类型对比
+ *
+ * CustomerSinks#sinksManyMulticast 中只在注释里描述了 directBestEffort / directAllOrNothing / onBackpressureBuffer 的差异，
+ * 这里对每种类型测量
+ * 1、吞吐 (Throughput) 与延迟分位 (SampleTime)
+ * 2、每次操作的分配 (GCProfiler gc.alloc.rate.norm)
+ * 3、订阅者数量 1 / 4 / 16，生产者数量由 {@link JmhRunner} 的线程数控制 (1 / 4)
+ * 4、slow = true 时额外增加一个 publishOn 到单线程并且每个元素消耗 CPU 的慢订阅者
+ *
+ * 每次操作 tryEmitNext 一个元素，FAIL_NON_SERIALIZED 时重试，其他失败计入 failed (AuxCounters)，
+ * directAllOrNothing / onBackpressureBuffer 在慢订阅者场景下的 FAIL_OVERFLOW 比例可以直接从结果中看到
+ * 订阅者在发射线程中同步消费，元素交给 Blackhole，避免订阅者被 JIT 消除
+ *
+ * unicast 只允许一个订阅者，单独在 {@link #unicast(UnicastState, Counters)} 中测量
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/20 14:30
+ * @Version V1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SinksManyBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        JmhRunner.run(SinksManyBenchmark.class.getSimpleName(), "sinks-many", 1, 4);
+    }
+
+    static final Integer VALUE = 1000;
+
+    @State(Scope.Benchmark)
+    public static class MulticastState {
+
+        @Param({"directBestEffort", "directAllOrNothing", "onBackpressureBuffer", "replay"})
+        public String flavor;
+
+        @Param({"1", "4", "16"})
+        public int subscribers;
+
+        @Param({"false", "true"})
+        public boolean slow;
+
+        Sinks.Many<Integer> sink;
+
+        Scheduler slowScheduler;
+
+        Disposable.Composite disposables;
+
+        @Setup(Level.Iteration)
+        public void setup(Blackhole bh) {
+            switch (flavor) {
+                case "directBestEffort":
+                    sink = Sinks.many().multicast().directBestEffort();
+                    break;
+                case "directAllOrNothing":
+                    sink = Sinks.many().multicast().directAllOrNothing();
+                    break;
+                case "onBackpressureBuffer":
+                    sink = Sinks.many().multicast().onBackpressureBuffer();
+                    break;
+                case "replay":
+                    sink = Sinks.many().replay().limit(256);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown flavor " + flavor);
+            }
+            disposables = Disposables.composite();
+            for (int i = 0; i < subscribers; i++) {
+                disposables.add(sink.asFlux().subscribe(bh::consume));
+            }
+            if (slow) {
+                slowScheduler = Schedulers.newSingle("slow-subscriber");
+                disposables.add(sink.asFlux()
+                        .publishOn(slowScheduler)
+                        .subscribe(v -> Blackhole.consumeCPU(10_000)));
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            sink.tryEmitComplete();
+            disposables.dispose();
+            if (slowScheduler != null) {
+                slowScheduler.dispose();
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UnicastState {
+
+        Sinks.Many<Integer> sink;
+
+        Disposable disposable;
+
+        @Setup(Level.Iteration)
+        public void setup(Blackhole bh) {
+            sink = Sinks.many().unicast().onBackpressureBuffer();
+            disposable = sink.asFlux().subscribe(bh::consume);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            sink.tryEmitComplete();
+            disposable.dispose();
+        }
+    }
+
+    /**
+     * 每个生产者线程的发射结果统计
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long ok;
+
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = 0;
+            failed = 0;
+        }
+    }
+
+    @Benchmark
+    public Sinks.EmitResult multicast(MulticastState state, Counters counters) {
+        return emit(state.sink, counters);
+    }
+
+    @Benchmark
+    public Sinks.EmitResult unicast(UnicastState state, Counters counters) {
+        return emit(state.sink, counters);
+    }
+
+    static Sinks.EmitResult emit(Sinks.Many<Integer> sink, Counters counters) {
+        Sinks.EmitResult result;
+        do {
+            result = sink.tryEmitNext(VALUE);
+        }
+        while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+        if (result.isSuccess()) {
+            counters.ok++;
+        }
+        else {
+            counters.failed++;
+        }
+        return result;
+    }
+}
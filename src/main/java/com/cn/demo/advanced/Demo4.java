@@ -2,8 +2,11 @@ package com.cn.demo.advanced;
 
 import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
+import com.cn.demo.schedulers.KeyAffinityScheduler;
 import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -20,6 +23,7 @@ public class Demo4 {
 
     public static void main(String[] args) {
 //        groupedFlux();
+//        groupedFluxKeyAffinity();
 //        windowFlux();
 //        windowUntil();
 //        windowWhile();
@@ -45,6 +49,32 @@ public class Demo4 {
                 .subscribe(i -> log.info("i : {}",JSON.toJSONString(i)));
     }
 
+    /**
+     * @Description: 分组后 publishOn 到 {@link KeyAffinityScheduler#forKey(Object)}，同一个分组的元素始终在同一个线程上处理，
+     * 按 key 的状态 (这里每个分组的 HashMap) 不需要同步
+     * @author Levi.Ding
+     * @date 2026/10/23 10:40
+     * @return : void
+     */
+    public static void groupedFluxKeyAffinity(){
+        KeyAffinityScheduler scheduler = KeyAffinityScheduler.create("Levi-key", 2);
+        Flux.range(1, 10)
+                .groupBy(i -> i % 2 == 0 ? "偶数" : "奇数")
+                .flatMap(g -> {
+                    //分组内的状态只在该 key 的线程上读写
+                    Map<String, Integer> state = new HashMap<>();
+                    return g.publishOn(scheduler.forKey(g.key()))
+                            .map(i -> {
+                                Integer sum = state.merge(g.key(), i, Integer::sum);
+                                log.info("ThreadName : {} , key : {} , sum : {}", Thread.currentThread().getName(), g.key(), sum);
+                                return sum;
+                            });
+                })
+                .blockLast();
+        log.info("lanes : {} , keys : {}", scheduler.laneMetrics(), scheduler.keyLoads());
+        scheduler.dispose();
+    }
+
     /**
      * @Description: window 窗口化分批
      *
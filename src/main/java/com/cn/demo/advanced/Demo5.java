@@ -1,7 +1,9 @@
 package com.cn.demo.advanced;
 
 import lombok.extern.slf4j.Slf4j;
+import com.cn.demo.schedulers.WorkStealingScheduler;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
@@ -24,6 +26,7 @@ public class Demo5 {
 
     public static void main(String[] args) throws IOException, InterruptedException {
 //        testParallel();
+//        testParallelWorkStealing();
         testParallelThenMerge();
     }
 
@@ -52,6 +55,32 @@ public class Demo5 {
         System.in.read();
     }
 
+    /**
+     * @Description: runOn 使用 {@link WorkStealingScheduler}，每个 rail 仍然串行执行，
+     * 但不会固定绑定在某个线程上，耗时不均时空闲线程会窃取其他 rail 的后续批次
+     * @author Levi.Ding
+     * @date 2026/10/22 18:00
+     * @return : void
+     */
+    public static void testParallelWorkStealing() throws IOException {
+        Scheduler scheduler = WorkStealingScheduler.create("Levi-ws", 2);
+        Flux.range(1,10).parallel(4).runOn(scheduler)
+                .map(i -> {
+                    if (i % 4 == 1) {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(200);
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return i;
+                })
+                .subscribe(i -> log.info("ThreadName : {},i : {}",Thread.currentThread().getName(),i));
+        System.in.read();
+        scheduler.dispose();
+    }
+
     /**
      * @Description: sequential 使用的线程是第一个 获取到 wip 锁的 线程
      * {@link reactor.core.publisher.ParallelMergeSequential.MergeSequentialMain#onNext(reactor.core.publisher.ParallelMergeSequential.MergeSequentialInner, java.lang.Object)}
@@ -0,0 +1,211 @@
+package com.cn.demo.operators;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * @Description 自适应请求量的订阅者基类
+ *
+ * {@link CustomerDeferred.Deferred} 每次手动 request(1)，{@link CustomerMultiSubscription} 固定 limitRate(1)，
+ * 每个元素都要向上游请求一次
+ *
+ * 当前实现参考 TCP 拥塞控制，按批次调整请求窗口 window
+ * 1、测量: 每个元素 {@link #process(Object)} 的耗时 (EWMA)，以及从 request 发出到该批第一个元素到达的延迟 (EWMA)
+ * 2、慢启动/加性增: 一批中出现过"处理完上一个元素后等待上游超过一个处理耗时"(饥饿)，窗口小于 ssthresh 时翻倍，否则 +1
+ * 3、BDP: 窗口至少为 bdp = 延迟 / 处理耗时 + 1，保证请求在途期间有元素可处理；
+ *    一批中没有饥饿且窗口超过 bdp 的 SHRINK_RATIO 倍时减半 (不低于 bdp)，上下阈值之间不调整，避免延迟抖动时窗口来回震荡
+ * 4、乘性减: 在途元素 * 平均元素大小 超过 memoryBudget 时，ssthresh = window / 2，窗口降到预算允许的数量
+ * 在途元素(已请求未处理)低于窗口一半时补充请求到 window
+ *
+ * 注) 子类实现 {@link #process(Object)}，hookOnSubscribe/hookOnNext 由基类接管；
+ *     元素大小由 sizer 估算，未提供时按 defaultElementBytes 计算
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/20 16:10
+ * @Version V1.0
+ */
+public abstract class AdaptiveDemandSubscriber<T> extends BaseSubscriber<T> {
+
+    /**
+     * EWMA 平滑系数
+     */
+    static final double ALPHA = 0.2;
+
+    /**
+     * 窗口超过 bdp 的多少倍时收缩
+     */
+    static final long SHRINK_RATIO = 4;
+
+    final int minBatch;
+
+    final int maxBatch;
+
+    final long memoryBudget;
+
+    final ToLongFunction<? super T> sizer;
+
+    /**
+     * 当前请求窗口
+     */
+    long window;
+
+    long ssthresh = Long.MAX_VALUE;
+
+    /**
+     * 已请求但尚未处理的数量
+     */
+    long outstanding;
+
+    long received;
+
+    /**
+     * 最近一次 request 对应的第一个元素序号与发出时间
+     */
+    long markIndex;
+
+    long markTime;
+
+    long lastDone;
+
+    boolean starved;
+
+    double processNanos;
+
+    double latencyNanos;
+
+    double elementBytes;
+
+    /**
+     * @param minBatch 最小请求窗口
+     * @param maxBatch 最大请求窗口
+     * @param memoryBudget 在途元素的内存预算(字节)
+     * @param sizer 估算单个元素大小
+     */
+    protected AdaptiveDemandSubscriber(int minBatch, int maxBatch, long memoryBudget, ToLongFunction<? super T> sizer) {
+        if (minBatch <= 0 || maxBatch < minBatch) {
+            throw new IllegalArgumentException("0 < minBatch <= maxBatch required but it was " + minBatch + ", " + maxBatch);
+        }
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget > 0 required but it was " + memoryBudget);
+        }
+        this.minBatch = minBatch;
+        this.maxBatch = maxBatch;
+        this.memoryBudget = memoryBudget;
+        this.sizer = sizer;
+        this.window = minBatch;
+    }
+
+    protected AdaptiveDemandSubscriber(int minBatch, int maxBatch, long memoryBudget, long defaultElementBytes) {
+        this(minBatch, maxBatch, memoryBudget, v -> defaultElementBytes);
+    }
+
+    /**
+     * @Description: 处理元素
+     * @author Levi.Ding
+     * @date 2026/10/20 16:20
+     * @param value :
+     * @return : void
+     */
+    protected abstract void process(T value);
+
+    @Override
+    protected final void hookOnSubscribe(Subscription subscription) {
+        requestWindow(System.nanoTime());
+    }
+
+    @Override
+    protected final void hookOnNext(T value) {
+        long start = System.nanoTime();
+        received++;
+        outstanding--;
+        if (received == markIndex) {
+            latencyNanos = ewma(latencyNanos, start - markTime);
+        }
+        if (lastDone != 0L && start - lastDone > processNanos) {
+            starved = true;
+        }
+        elementBytes = ewma(elementBytes, sizer.applyAsLong(value));
+
+        process(value);
+
+        long end = System.nanoTime();
+        processNanos = ewma(processNanos, end - start);
+        lastDone = end;
+
+        if (outstanding <= window >> 1 && !isDisposed()) {
+            adapt();
+            requestWindow(end);
+        }
+    }
+
+    /**
+     * @Description: 每批结束时调整窗口
+     * @author Levi.Ding
+     * @date 2026/10/20 16:30
+     * @return : void
+     */
+    void adapt() {
+        long w = window;
+        long bdp = (long) (latencyNanos / Math.max(processNanos, 1.0)) + 1;
+        if (starved) {
+            w = w < ssthresh ? w << 1 : w + 1;
+            starved = false;
+        }
+        else if (w / SHRINK_RATIO > bdp) {
+            w = w >> 1;
+        }
+        w = Math.max(w, bdp);
+
+        long budgetElements = (long) (memoryBudget / Math.max(elementBytes, 1.0));
+        if (w > budgetElements) {
+            ssthresh = Math.max(window >> 1, minBatch);
+            w = budgetElements;
+        }
+        window = Math.min(Math.max(w, minBatch), maxBatch);
+    }
+
+    void requestWindow(long now) {
+        long n = window - outstanding;
+        if (n <= 0) {
+            return;
+        }
+        markIndex = received + outstanding + 1;
+        markTime = now;
+        outstanding += n;
+        request(n);
+    }
+
+    static double ewma(double current, double sample) {
+        return current == 0.0 ? sample : current + ALPHA * (sample - current);
+    }
+
+    /**
+     * 当前请求窗口
+     */
+    public long currentWindow() {
+        return window;
+    }
+
+    /**
+     * 已请求但尚未处理的数量
+     */
+    public long outstanding() {
+        return outstanding;
+    }
+
+    /**
+     * 单个元素平均处理耗时(纳秒)
+     */
+    public double processNanos() {
+        return processNanos;
+    }
+
+    /**
+     * request 到该批第一个元素到达的平均延迟(纳秒)
+     */
+    public double latencyNanos() {
+        return latencyNanos;
+    }
+}
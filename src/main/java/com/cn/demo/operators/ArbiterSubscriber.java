@@ -0,0 +1,241 @@
+package com.cn.demo.operators;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * @Description 可复用的订阅切换仲裁者
+ *
+ * 与 {@link reactor.core.publisher.Operators.MultiSubscriptionSubscriber} 一样，切换订阅时新的 Subscription 会继承剩余的 requested，
+ * 区别在于 produced 的记账方式
+ *
+ * MultiSubscriptionSubscriber 每个元素都要 producedOne() (一次 WIP CAS 或一次 missedProduced 原子加)，
+ * 当前实现中 onNext 只在信号线程累加普通字段 produced，只有 {@link #set(Subscription)} 切换订阅时才一次性转交给 drain 循环，
+ * 正常下发元素的路径上没有任何原子操作；切换本身也不分配对象，同一个仲裁者可以切换任意多次
+ *
+ * 注) 子类在 onNext 下发元素前调用 {@link #producedOne()}，在 onComplete/onError 中决定是否切换到下一个 Publisher (publisher.subscribe(this))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 10:05
+ * @Version V1.0
+ */
+public abstract class ArbiterSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+
+    protected final CoreSubscriber<? super T> actual;
+
+    /**
+     * 当前订阅，只在 drain 中修改
+     */
+    Subscription subscription;
+
+    /**
+     * 向当前订阅请求且尚未确认生产的数量，只在 drain 中修改
+     */
+    long requested;
+
+    /**
+     * 当前订阅已生产但还未从 requested 中扣除的数量，只在信号线程中修改
+     */
+    long produced;
+
+    volatile Subscription missedSubscription;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<ArbiterSubscriber, Subscription> MISSED_SUBSCRIPTION =
+            AtomicReferenceFieldUpdater.newUpdater(ArbiterSubscriber.class, Subscription.class, "missedSubscription");
+
+    volatile long missedRequested;
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<ArbiterSubscriber> MISSED_REQUESTED =
+            AtomicLongFieldUpdater.newUpdater(ArbiterSubscriber.class, "missedRequested");
+
+    volatile long missedProduced;
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<ArbiterSubscriber> MISSED_PRODUCED =
+            AtomicLongFieldUpdater.newUpdater(ArbiterSubscriber.class, "missedProduced");
+
+    volatile int wip;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<ArbiterSubscriber> WIP =
+            AtomicIntegerFieldUpdater.newUpdater(ArbiterSubscriber.class, "wip");
+
+    volatile boolean cancelled;
+
+    protected ArbiterSubscriber(CoreSubscriber<? super T> actual) {
+        this.actual = actual;
+    }
+
+    @Override
+    public Context currentContext() {
+        return actual.currentContext();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        set(s);
+    }
+
+    /**
+     * 记录下发了一个元素，只在信号线程中调用
+     */
+    protected final void producedOne() {
+        produced++;
+    }
+
+    /**
+     * @Description: 切换到新的订阅，把上一个订阅的 produced 转交给 drain 后向新订阅请求剩余数量
+     * @author Levi.Ding
+     * @date 2026/10/21 10:20
+     * @param s : 新订阅
+     * @return : void
+     */
+    public final void set(Subscription s) {
+        if (cancelled) {
+            s.cancel();
+            return;
+        }
+        long p = produced;
+        produced = 0L;
+        if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+            long r = requested;
+            if (r != Long.MAX_VALUE) {
+                r = Math.max(r - p, 0L);
+                requested = r;
+            }
+            subscription = s;
+            if (WIP.decrementAndGet(this) != 0) {
+                drainLoop();
+            }
+            if (r != 0L) {
+                s.request(r);
+            }
+            return;
+        }
+        if (p != 0L) {
+            Operators.addCap(MISSED_PRODUCED, this, p);
+        }
+        Subscription a = MISSED_SUBSCRIPTION.getAndSet(this, s);
+        if (a != null) {
+            a.cancel();
+        }
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (!Operators.validate(n)) {
+            return;
+        }
+        if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+            long r = requested;
+            if (r != Long.MAX_VALUE) {
+                requested = Operators.addCap(r, n);
+            }
+            Subscription a = subscription;
+            if (WIP.decrementAndGet(this) != 0) {
+                drainLoop();
+            }
+            if (a != null) {
+                a.request(n);
+            }
+            return;
+        }
+        Operators.addCap(MISSED_REQUESTED, this, n);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            drain();
+        }
+    }
+
+    public final boolean isCancelled() {
+        return cancelled;
+    }
+
+    final void drain() {
+        if (WIP.getAndIncrement(this) != 0) {
+            return;
+        }
+        drainLoop();
+    }
+
+    final void drainLoop() {
+        int missed = 1;
+        long requestAmount = 0L;
+        Subscription requestTarget = null;
+        for (;;) {
+            Subscription ms = missedSubscription;
+            if (ms != null) {
+                ms = MISSED_SUBSCRIPTION.getAndSet(this, null);
+            }
+            long mr = missedRequested;
+            if (mr != 0L) {
+                mr = MISSED_REQUESTED.getAndSet(this, 0L);
+            }
+            long mp = missedProduced;
+            if (mp != 0L) {
+                mp = MISSED_PRODUCED.getAndSet(this, 0L);
+            }
+            Subscription a = subscription;
+            if (cancelled) {
+                if (a != null) {
+                    a.cancel();
+                    subscription = null;
+                }
+                if (ms != null) {
+                    ms.cancel();
+                }
+            }
+            else {
+                long r = requested;
+                if (r != Long.MAX_VALUE) {
+                    long u = Operators.addCap(r, mr);
+                    if (u != Long.MAX_VALUE) {
+                        u = Math.max(u - mp, 0L);
+                    }
+                    requested = u;
+                    r = u;
+                }
+                if (ms != null) {
+                    subscription = ms;
+                    if (r != 0L) {
+                        requestAmount = Operators.addCap(requestAmount, r);
+                        requestTarget = ms;
+                    }
+                }
+                else if (mr != 0L && a != null) {
+                    requestAmount = Operators.addCap(requestAmount, mr);
+                    requestTarget = a;
+                }
+            }
+            missed = WIP.addAndGet(this, -missed);
+            if (missed == 0) {
+                if (requestAmount != 0L) {
+                    requestTarget.request(requestAmount);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.PARENT) return subscription;
+        if (key == Attr.ACTUAL) return actual;
+        if (key == Attr.CANCELLED) return cancelled;
+        if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+        return null;
+    }
+}
@@ -0,0 +1,211 @@
+package com.cn.demo.operators;
+
+import org.reactivestreams.Publisher;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * @Description 基于 {@link ArbiterSubscriber} 的 switchIfEmpty / onErrorResume
+ *
+ * Flux#switchIfEmpty 链式调用 n 次会创建 n 层 SwitchIfEmptySubscriber，每层都是一个 MultiSubscriptionSubscriber；
+ * {@link #firstNonEmpty(Publisher[])} 只用一个仲裁者依次切换所有备选 Publisher，切换过程不分配对象，
+ * 同步完成的空 Publisher 通过 trampoline 循环订阅，不会递归加深调用栈
+ *
+ * 用法: flux.transform(f -> Arbiters.switchIfEmpty(f, fallback))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 10:40
+ * @Version V1.0
+ */
+public final class Arbiters {
+
+    private Arbiters() {
+    }
+
+    public static <T> Flux<T> switchIfEmpty(Publisher<? extends T> source, Publisher<? extends T> fallback) {
+        return firstNonEmpty(source, fallback);
+    }
+
+    /**
+     * @Description: 依次订阅 sources，第一个发出元素的 Publisher 完成后结束，全部为空时直接完成
+     * @author Levi.Ding
+     * @date 2026/10/21 10:45
+     * @param sources :
+     * @return : reactor.core.publisher.Flux<T>
+     */
+    @SafeVarargs
+    public static <T> Flux<T> firstNonEmpty(Publisher<? extends T>... sources) {
+        for (Publisher<? extends T> p : sources) {
+            Objects.requireNonNull(p, "sources contains null");
+        }
+        return new FirstNonEmptyFlux<>(sources);
+    }
+
+    /**
+     * @Description: 出现异常时切换到 fallback 返回的 Publisher，最多切换 maxResumes 次
+     * @author Levi.Ding
+     * @date 2026/10/21 10:48
+     * @param source :
+     * @param fallback :
+     * @param maxResumes :
+     * @return : reactor.core.publisher.Flux<T>
+     */
+    public static <T> Flux<T> onErrorResume(Publisher<? extends T> source,
+                                            Function<? super Throwable, ? extends Publisher<? extends T>> fallback,
+                                            int maxResumes) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(fallback, "fallback");
+        if (maxResumes < 0) {
+            throw new IllegalArgumentException("maxResumes >= 0 required but it was " + maxResumes);
+        }
+        return new OnErrorResumeFlux<>(source, fallback, maxResumes);
+    }
+
+    static final class FirstNonEmptyFlux<T> extends Flux<T> {
+
+        final Publisher<? extends T>[] sources;
+
+        FirstNonEmptyFlux(Publisher<? extends T>[] sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super T> actual) {
+            if (sources.length == 0) {
+                Operators.complete(actual);
+                return;
+            }
+            FirstNonEmptySubscriber<T> parent = new FirstNonEmptySubscriber<>(actual, sources);
+            actual.onSubscribe(parent);
+            parent.subscribeNext();
+        }
+    }
+
+    static final class FirstNonEmptySubscriber<T> extends ArbiterSubscriber<T> {
+
+        final Publisher<? extends T>[] sources;
+
+        int index;
+
+        boolean nonEmpty;
+
+        volatile int subscribing;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<FirstNonEmptySubscriber> SUBSCRIBING =
+                AtomicIntegerFieldUpdater.newUpdater(FirstNonEmptySubscriber.class, "subscribing");
+
+        FirstNonEmptySubscriber(CoreSubscriber<? super T> actual, Publisher<? extends T>[] sources) {
+            super(actual);
+            this.sources = sources;
+        }
+
+        @Override
+        public void onNext(T t) {
+            nonEmpty = true;
+            producedOne();
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (nonEmpty || index == sources.length) {
+                actual.onComplete();
+                return;
+            }
+            subscribeNext();
+        }
+
+        void subscribeNext() {
+            if (SUBSCRIBING.getAndIncrement(this) != 0) {
+                return;
+            }
+            do {
+                if (isCancelled()) {
+                    return;
+                }
+                sources[index++].subscribe(this);
+            }
+            while (SUBSCRIBING.decrementAndGet(this) != 0);
+        }
+    }
+
+    static final class OnErrorResumeFlux<T> extends Flux<T> {
+
+        final Publisher<? extends T> source;
+
+        final Function<? super Throwable, ? extends Publisher<? extends T>> fallback;
+
+        final int maxResumes;
+
+        OnErrorResumeFlux(Publisher<? extends T> source,
+                          Function<? super Throwable, ? extends Publisher<? extends T>> fallback,
+                          int maxResumes) {
+            this.source = source;
+            this.fallback = fallback;
+            this.maxResumes = maxResumes;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super T> actual) {
+            OnErrorResumeSubscriber<T> parent = new OnErrorResumeSubscriber<>(actual, fallback, maxResumes);
+            actual.onSubscribe(parent);
+            source.subscribe(parent);
+        }
+    }
+
+    static final class OnErrorResumeSubscriber<T> extends ArbiterSubscriber<T> {
+
+        final Function<? super Throwable, ? extends Publisher<? extends T>> fallback;
+
+        int remaining;
+
+        OnErrorResumeSubscriber(CoreSubscriber<? super T> actual,
+                                Function<? super Throwable, ? extends Publisher<? extends T>> fallback,
+                                int maxResumes) {
+            super(actual);
+            this.fallback = fallback;
+            this.remaining = maxResumes;
+        }
+
+        @Override
+        public void onNext(T t) {
+            producedOne();
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (remaining == 0) {
+                actual.onError(t);
+                return;
+            }
+            remaining--;
+            Publisher<? extends T> p;
+            try {
+                p = Objects.requireNonNull(fallback.apply(t), "The fallback returned a null Publisher");
+            }
+            catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                actual.onError(Operators.onOperatorError(null, Exceptions.addSuppressed(e, t), actual.currentContext()));
+                return;
+            }
+            p.subscribe(this);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+    }
+}
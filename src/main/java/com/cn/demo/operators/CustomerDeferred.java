@@ -4,8 +4,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Subscription;
 import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @Description 自定义延迟订阅
@@ -56,4 +60,36 @@ public class CustomerDeferred {
 
     }
 
+    /**
+     * @Description: 对比 {@link Deferred} 手动 request(1)，{@link AdaptiveDemandSubscriber} 根据处理耗时与上游延迟调整每次请求数量
+     *
+     * 上游每个元素延迟 1ms 产生 (publishOn 切换线程)，处理每个元素耗时 100µs，窗口会增长到足以覆盖上游延迟
+     *
+     * @author Levi.Ding
+     * @date 2026/10/20 16:45
+     * @return : void
+     */
+    public static void egAdaptiveDemand() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Flux.range(1, 2000)
+                .delayElements(Duration.ofMillis(1))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnRequest(n -> log.info("request : {}", n))
+                .doFinally(s -> latch.countDown())
+                .subscribe(new AdaptiveDemandSubscriber<Integer>(1, 1024, 64 * 1024, 16L) {
+                    @Override
+                    protected void process(Integer value) {
+                        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(100);
+                        while (System.nanoTime() < deadline) {
+                            //模拟处理耗时
+                        }
+                        if (value % 200 == 0) {
+                            log.info("value : {} , window : {} , process : {} ns , latency : {} ns",
+                                    value, currentWindow(), (long) processNanos(), (long) latencyNanos());
+                        }
+                    }
+                });
+        latch.await();
+    }
+
 }
@@ -41,6 +41,24 @@ public class CustomerMultiSubscription {
                 .subscribe(i -> log.info("i : {}", i));
     }
 
+    /**
+     * @Description: 与 {@link #egMultiSubscription()} 相同的场景，使用 {@link Arbiters} 依次切换多个空的备选 Publisher，
+     * 整个过程只有一个 {@link ArbiterSubscriber}，limitRate(1) 的剩余请求会被下一个订阅继承
+     * @author Levi.Ding
+     * @date 2026/10/21 11:40
+     * @return : void
+     */
+    public static void egArbiter() {
+        Flux<Integer> source = Flux.range(1, 10).filter(i -> i >= 11);
+        Arbiters.firstNonEmpty(source, Flux.<Integer>empty(), Mono.fromSupplier(() -> 1), Mono.fromSupplier(() -> 2))
+                .limitRate(1)
+                .subscribe(i -> log.info("i : {}", i));
+
+        Arbiters.onErrorResume(Flux.range(1, 3).concatWith(Mono.error(new IllegalStateException("boom"))), e -> Flux.range(4, 3), 1)
+                .limitRate(1)
+                .subscribe(i -> log.info("resume i : {}", i));
+    }
+
 
 
 }
@@ -0,0 +1,251 @@
+package com.cn.demo.operators.fusion;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * @Description 参与 Fuseable 协商的自定义算子
+ *
+ * {@link com.cn.demo.simple.Demo9.SampleSubscriber} 这类基于 BaseSubscriber 的自定义阶段不实现 {@link Fuseable.QueueSubscription}，
+ * 下游的 publishOn/concatMap 等只能自己建队列、按批次向上请求，上游的 range/fromIterable 也无法走 ConditionalSubscriber 的 tryOnNext
+ *
+ * 当前实现
+ * 1、宏融合: 实现 {@link Fuseable.QueueSubscription}，requestFusion 透传给上游，SYNC/ASYNC 模式下下游直接 poll()，
+ *    poll() 中从上游 poll 并执行 {@link FusedStage}，过滤掉的元素在同一个循环中跳过，不再经过额外的队列
+ * 2、微融合: 实现 {@link Fuseable.ConditionalSubscriber}，被过滤的元素返回 false，上游无需额外 request(1)
+ * 3、带 THREAD_BARRIER 的融合请求返回 NONE，与内置 map 一致，保证用户函数不会被换到其他线程执行
+ *
+ * 用法: flux.transform(FusedOperators.stage(FusedStage.map(...).then(FusedStage.filter(...))))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 14:20
+ * @Version V1.0
+ */
+public final class FusedOperators {
+
+    private FusedOperators() {
+    }
+
+    public static <I, O> Function<Flux<I>, Flux<O>> stage(FusedStage<? super I, ? extends O> stage) {
+        Objects.requireNonNull(stage, "stage");
+        return source -> new FusedStageFlux<>(source, stage);
+    }
+
+    static final class FusedStageFlux<I, O> extends Flux<O> implements Fuseable, Scannable {
+
+        final Publisher<? extends I> source;
+
+        final FusedStage<? super I, ? extends O> stage;
+
+        FusedStageFlux(Publisher<? extends I> source, FusedStage<? super I, ? extends O> stage) {
+            this.source = source;
+            this.stage = stage;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super O> actual) {
+            source.subscribe(new FusedStageSubscriber<>(actual, stage));
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return source;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.SYNC;
+            return null;
+        }
+    }
+
+    static final class FusedStageSubscriber<I, O>
+            implements Fuseable.ConditionalSubscriber<I>, Fuseable.QueueSubscription<O>, Scannable {
+
+        final CoreSubscriber<? super O> actual;
+
+        @Nullable
+        final Fuseable.ConditionalSubscriber<? super O> conditional;
+
+        final FusedStage<? super I, ? extends O> stage;
+
+        Subscription s;
+
+        @Nullable
+        Fuseable.QueueSubscription<I> qs;
+
+        int sourceMode;
+
+        boolean done;
+
+        @SuppressWarnings("unchecked")
+        FusedStageSubscriber(CoreSubscriber<? super O> actual, FusedStage<? super I, ? extends O> stage) {
+            this.actual = actual;
+            this.conditional = actual instanceof Fuseable.ConditionalSubscriber ? (Fuseable.ConditionalSubscriber<? super O>) actual : null;
+            this.stage = stage;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                if (s instanceof Fuseable.QueueSubscription) {
+                    this.qs = (Fuseable.QueueSubscription<I>) s;
+                }
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(I t) {
+            if (sourceMode == Fuseable.ASYNC) {
+                //ASYNC 模式下 onNext 只是"有数据可以 poll"的信号
+                actual.onNext(null);
+                return;
+            }
+            if (!tryOnNext(t)) {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public boolean tryOnNext(I t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return true;
+            }
+            O o;
+            try {
+                o = stage.apply(t);
+            }
+            catch (Throwable e) {
+                onError(Operators.onOperatorError(s, e, t, actual.currentContext()));
+                return true;
+            }
+            if (o == null) {
+                Operators.onDiscard(t, actual.currentContext());
+                return false;
+            }
+            if (conditional != null) {
+                return conditional.tryOnNext(o);
+            }
+            actual.onNext(o);
+            return true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+
+        @Override
+        public int requestFusion(int requestedMode) {
+            Fuseable.QueueSubscription<I> q = qs;
+            if (q == null || (requestedMode & Fuseable.THREAD_BARRIER) != 0) {
+                return Fuseable.NONE;
+            }
+            int m = q.requestFusion(requestedMode);
+            sourceMode = m;
+            return m;
+        }
+
+        @Override
+        @Nullable
+        public O poll() {
+            Fuseable.QueueSubscription<I> q = qs;
+            long dropped = 0L;
+            for (;;) {
+                I v = q.poll();
+                if (v == null) {
+                    if (dropped != 0L && sourceMode == Fuseable.ASYNC) {
+                        q.request(dropped);
+                    }
+                    return null;
+                }
+                O o;
+                try {
+                    o = stage.apply(v);
+                }
+                catch (Throwable e) {
+                    throw Exceptions.propagate(e);
+                }
+                if (o != null) {
+                    if (dropped != 0L && sourceMode == Fuseable.ASYNC) {
+                        q.request(dropped);
+                    }
+                    return o;
+                }
+                Operators.onDiscard(v, actual.currentContext());
+                dropped++;
+            }
+        }
+
+        @Override
+        public int size() {
+            Fuseable.QueueSubscription<I> q = qs;
+            return q == null ? 0 : q.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            Fuseable.QueueSubscription<I> q = qs;
+            return q == null || q.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            Fuseable.QueueSubscription<I> q = qs;
+            if (q != null) {
+                q.clear();
+            }
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return s;
+            if (key == Attr.ACTUAL) return actual;
+            if (key == Attr.TERMINATED) return done;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.SYNC;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cn.demo.operators.fusion;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @Description 可融合的 map/filter 阶段
+ *
+ * 返回 null 表示过滤掉当前元素；多个阶段通过 {@link #then(FusedStage)} 组合为一个阶段，在同一个循环中执行
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 14:10
+ * @Version V1.0
+ */
+@FunctionalInterface
+public interface FusedStage<I, O> {
+
+    @Nullable
+    O apply(I value);
+
+    default <R> FusedStage<I, R> then(FusedStage<? super O, ? extends R> next) {
+        Objects.requireNonNull(next, "next");
+        return v -> {
+            O o = apply(v);
+            return o == null ? null : next.apply(o);
+        };
+    }
+
+    static <I, O> FusedStage<I, O> map(Function<? super I, ? extends O> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return v -> Objects.requireNonNull(mapper.apply(v), "The mapper returned a null value.");
+    }
+
+    static <T> FusedStage<T, T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return v -> predicate.test(v) ? v : null;
+    }
+}
@@ -1,9 +1,24 @@
 package com.cn.demo.propagation;
 
 import com.alibaba.fastjson.JSONObject;
+import com.cn.demo.operators.fusion.FusedStage;
+import com.cn.demo.propagation.accessor.ScopedContext;
+import com.cn.demo.propagation.accessor.ScopedContextAccessor;
+import com.cn.demo.propagation.listener.AsyncSignalDispatcher;
+import com.cn.demo.propagation.listener.AsyncSignalListenerFactory;
 import com.cn.demo.propagation.listener.DefaultThreadSignalListener;
+import com.cn.demo.propagation.listener.MetricsSignalListenerFactory;
+import com.cn.demo.propagation.listener.SamplingSignalListenerFactory;
+import com.cn.demo.propagation.listener.SignalMetrics;
+import com.cn.demo.propagation.restore.CachedContextRestore;
+import com.cn.demo.schedulers.VirtualThreads;
+import io.micrometer.context.ContextRegistry;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 
@@ -29,6 +44,11 @@ public class Demo1 {
     public static void main(String[] args) {
 //        compatibleThreadLocal();
 //        handleTapThreadLocal();
+//        tapAggregated();
+//        tapSampled();
+//        cachedRestore();
+//        virtualThreadContext();
+//        tapAsync();
         tapThreadLocal();
     }
 
@@ -96,4 +116,128 @@ public class Demo1 {
                 .block();
     }
 
+    /**
+     * @Description: tap() 使用 {@link MetricsSignalListenerFactory}，信号只写入聚合指标，由 {@link SignalMetrics#startReporting} 周期输出，
+     * 不再像 {@link DefaultThreadSignalListener} 那样每个信号打印一次日志
+     * @author Levi.Ding
+     * @date 2026/10/21 17:00
+     * @return : void
+     */
+    public static void tapAggregated(){
+        SignalMetrics metrics = new SignalMetrics("tapAggregated");
+        Disposable reporting = metrics.startReporting(Duration.ofMillis(500), snapshot -> log.info("{}", snapshot));
+
+        Flux<Long> source = Flux.interval(Duration.ofMillis(1))
+                .take(200)
+                .tap(new MetricsSignalListenerFactory<>(metrics));
+        Flux.range(0, 8)
+                .flatMap(i -> source)
+                .blockLast();
+
+        reporting.dispose();
+        log.info("{}", metrics.snapshot());
+    }
+
+    /**
+     * @Description: 只对约 1/10 的订阅挂载 {@link MetricsSignalListenerFactory}，其余订阅得到空 listener，
+     * 被采样的 listener 以权重 10 计数，{@link SignalMetrics#snapshot()} 读到的就是外推后的值
+     * @author Levi.Ding
+     * @date 2026/10/21 17:40
+     * @return : void
+     */
+    public static void tapSampled(){
+        SignalMetrics metrics = new SignalMetrics("tapSampled");
+        SamplingSignalListenerFactory<Integer, SignalMetrics> sampling = new SamplingSignalListenerFactory<>(
+                new MetricsSignalListenerFactory<>(metrics), SamplingSignalListenerFactory.Sampler.oneIn(10));
+
+        Flux<Integer> source = Flux.range(0, 100).tap(sampling);
+        Flux.range(0, 10_000)
+                .concatMap(i -> source)
+                .blockLast();
+
+        log.info("{}", metrics.snapshot());
+    }
+
+    /**
+     * @Description: 与 handleTapThreadLocal 相同的效果，由 {@link CachedContextRestore} 恢复 ThreadLocal，
+     * accessor 在订阅时解析一次；publishOn 只支持 ASYNC 融合，这里逐个元素恢复，
+     * 直接接在 range/fromIterable 之后时会 SYNC 融合，每个请求批次只 setValue/reset 一次
+     * @author Levi.Ding
+     * @date 2026/10/21 18:30
+     * @return : void
+     */
+    public static void cachedRestore(){
+        threadLocal.set("cached");
+        String msg = Flux.range(0, 3)
+                .publishOn(Schedulers.parallel())
+                .transform(CachedContextRestore.<Integer, String>stage(FusedStage.map(v -> "value : " + v + " threadLocal : " + threadLocal.get()
+                        + " ThreadName : " + Thread.currentThread().getName())))
+                .collectList()
+                .map(Object::toString)
+                .contextCapture()
+                .block();
+        log.info(msg);
+    }
+
+    /**
+     * @Description: 虚拟线程上的上下文传递
+     *
+     * 1、{@link ScopedContextAccessor} 注册到 ContextRegistry 后与 DefaultThreadLocalAccessor 一样由 contextCapture()/handle() 恢复
+     * 2、不经过 Reactor Context 时，也可以通过 Schedulers.onScheduleHook 使用 {@link ScopedContext#wrap(Runnable)} 在提交任务时直接传递 Frame
+     *
+     * @author Levi.Ding
+     * @date 2026/10/22 11:20
+     * @return : void
+     */
+    public static void virtualThreadContext(){
+        String key = "Demo1.scoped";
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new ScopedContextAccessor<String>(key));
+        Scheduler virtual = Schedulers.fromExecutorService(VirtualThreads.newThreadPerTaskExecutor("demo-virtual"));
+
+        try (ScopedContext.Scope ignored = ScopedContext.where(key, "virtual")) {
+            String msg = Mono.just(VirtualThreads.isAvailable())
+                    .publishOn(virtual)
+                    .<String>handle((v, sink) -> sink.next("virtual : " + v + " scoped value : " + ScopedContext.get(key)
+                            + " ThreadName : " + Thread.currentThread()))
+                    .contextCapture()
+                    .block();
+            log.info(msg);
+        }
+        finally {
+            virtual.dispose();
+        }
+    }
+
+    /**
+     * @Description: tap() 使用 {@link AsyncSignalListenerFactory}，信号写入环形缓冲区后由后台线程批量打印，
+     * 发射线程上不再执行日志，缓冲区满时丢弃并计数
+     * @author Levi.Ding
+     * @date 2026/10/22 14:50
+     * @return : void
+     */
+    public static void tapAsync() throws InterruptedException {
+        AsyncSignalDispatcher dispatcher = AsyncSignalDispatcher.builder(new AsyncSignalDispatcher.Handler() {
+                    @Override
+                    public void onRecord(AsyncSignalDispatcher.SignalRecord record) {
+                        log.info("listener value : {}", record);
+                    }
+
+                    @Override
+                    public void onBatchEnd(int size) {
+                        log.info("batch size : {}", size);
+                    }
+                })
+                .capacity(1024)
+                .captureValues(true)
+                .build();
+
+        Flux.range(0, 100)
+                .tap(new AsyncSignalListenerFactory<>(dispatcher))
+                .blockLast();
+
+        Thread.sleep(100);
+        dispatcher.dispose();
+        log.info("dropped : {}", dispatcher.dropped());
+    }
+
 }
@@ -0,0 +1,200 @@
+package com.cn.demo.propagation.accessor;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @Description 面向虚拟线程的上下文容器
+ *
+ * 每个 ThreadLocal 在每个线程上都要占用 ThreadLocalMap 的一个 Entry，N 个 accessor 的 contextCapture 恢复到一个新的虚拟线程时，
+ * 就要创建一个 ThreadLocalMap 并写入 N 个 Entry，百万级短生命周期的虚拟线程会反复付出这部分开销
+ *
+ * 这里所有 key 共用一个 ThreadLocal，值保存在不可变的 {@link Frame} 中
+ * 1、一个线程最多占用一个 Entry，没有绑定任何 key 的线程不会创建 ThreadLocalMap
+ * 2、Frame 不可变，可以在线程之间直接共享，{@link #wrap(Runnable)} 在提交时捕获、执行时绑定，不需要逐个 key 复制
+ * 3、最后一个 key 被移除时调用 ThreadLocal.remove()，线程池中的平台线程不会残留数据
+ *
+ * 注) JDK 21 的 ScopedValue 只能通过 where().run() 结构化绑定，无法满足 ThreadLocalAccessor 的 setValue/reset 语义，
+ *     并且项目以 Java 8 为编译目标，所以用单个 ThreadLocal + 不可变 Frame 实现相同的"绑定/恢复"模型，见 {@link #where(String, Object)}
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 10:20
+ * @Version V1.0
+ */
+public final class ScopedContext {
+
+    static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    private ScopedContext() {
+    }
+
+    @Nullable
+    public static Object get(String key) {
+        Frame f = CURRENT.get();
+        return f == null ? null : f.get(key);
+    }
+
+    public static void set(String key, Object value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        Frame f = CURRENT.get();
+        CURRENT.set(f == null ? new Frame(new String[]{key}, new Object[]{value}) : f.with(key, value));
+    }
+
+    public static void remove(String key) {
+        Frame f = CURRENT.get();
+        if (f == null) {
+            return;
+        }
+        Frame next = f.without(key);
+        if (next == null) {
+            CURRENT.remove();
+        }
+        else if (next != f) {
+            CURRENT.set(next);
+        }
+    }
+
+    /**
+     * @Description: 当前线程绑定的 Frame，可以跨线程共享
+     * @author Levi.Ding
+     * @date 2026/10/22 10:30
+     * @return : com.cn.demo.propagation.accessor.ScopedContext.Frame
+     */
+    @Nullable
+    public static Frame capture() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @Description: 绑定 frame，返回的 Scope 关闭时恢复之前的 Frame
+     * @author Levi.Ding
+     * @date 2026/10/22 10:32
+     * @param frame :
+     * @return : com.cn.demo.propagation.accessor.ScopedContext.Scope
+     */
+    public static Scope bind(@Nullable Frame frame) {
+        Frame previous = CURRENT.get();
+        if (previous == frame) {
+            return Scope.NOOP;
+        }
+        install(frame);
+        return () -> install(previous);
+    }
+
+    /**
+     * 与 ScopedValue.where(key, value) 类似，在 Scope 范围内绑定 key
+     */
+    public static Scope where(String key, Object value) {
+        Frame previous = CURRENT.get();
+        set(key, value);
+        return () -> install(previous);
+    }
+
+    /**
+     * @Description: 在提交时捕获当前 Frame，执行时绑定，可以作为 Schedulers.onScheduleHook 使用
+     * @author Levi.Ding
+     * @date 2026/10/22 10:35
+     * @param task :
+     * @return : java.lang.Runnable
+     */
+    public static Runnable wrap(Runnable task) {
+        Frame frame = CURRENT.get();
+        if (frame == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = bind(frame)) {
+                task.run();
+            }
+        };
+    }
+
+    static void install(@Nullable Frame frame) {
+        if (frame == null) {
+            CURRENT.remove();
+        }
+        else {
+            CURRENT.set(frame);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        Scope NOOP = () -> { };
+
+        @Override
+        void close();
+    }
+
+    /**
+     * 不可变的 key/value 数组，key 数量通常很少，线性查找比哈希更快
+     */
+    public static final class Frame {
+
+        final String[] keys;
+
+        final Object[] values;
+
+        Frame(String[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Nullable
+        Object get(String key) {
+            String[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i].equals(key)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        Frame with(String key, Object value) {
+            String[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i].equals(key)) {
+                    if (values[i] == value) {
+                        return this;
+                    }
+                    Object[] v = values.clone();
+                    v[i] = value;
+                    return new Frame(k, v);
+                }
+            }
+            String[] nk = Arrays.copyOf(k, k.length + 1);
+            Object[] nv = Arrays.copyOf(values, values.length + 1);
+            nk[k.length] = key;
+            nv[k.length] = value;
+            return new Frame(nk, nv);
+        }
+
+        /**
+         * @return 不包含 key 时返回 this，移除后为空时返回 null
+         */
+        @Nullable
+        Frame without(String key) {
+            String[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i].equals(key)) {
+                    if (k.length == 1) {
+                        return null;
+                    }
+                    String[] nk = new String[k.length - 1];
+                    Object[] nv = new Object[k.length - 1];
+                    System.arraycopy(k, 0, nk, 0, i);
+                    System.arraycopy(values, 0, nv, 0, i);
+                    System.arraycopy(k, i + 1, nk, i, k.length - i - 1);
+                    System.arraycopy(values, i + 1, nv, i, k.length - i - 1);
+                    return new Frame(nk, nv);
+                }
+            }
+            return this;
+        }
+    }
+}
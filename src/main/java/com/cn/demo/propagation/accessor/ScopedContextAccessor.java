@@ -0,0 +1,47 @@
+package com.cn.demo.propagation.accessor;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+import java.util.Objects;
+
+/**
+ * @Description 基于 {@link ScopedContext} 的 ThreadLocalAccessor
+ *
+ * 与 {@link DefaultThreadLocalAccessor} 一样可以配合 contextCapture() 使用，区别在于多个 key 共用一个 ThreadLocal，
+ * 适合大量短生命周期的虚拟线程
+ *
+ * 用法: ContextRegistry.getInstance().registerThreadLocalAccessor(new ScopedContextAccessor<>("tenant"))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 10:50
+ * @Version V1.0
+ */
+public class ScopedContextAccessor<V> implements ThreadLocalAccessor<V> {
+
+    final String key;
+
+    public ScopedContextAccessor(String key) {
+        this.key = Objects.requireNonNull(key, "key");
+    }
+
+    @Override
+    public Object key() {
+        return key;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getValue() {
+        return (V) ScopedContext.get(key);
+    }
+
+    @Override
+    public void setValue(V value) {
+        ScopedContext.set(key, value);
+    }
+
+    @Override
+    public void reset() {
+        ScopedContext.remove(key);
+    }
+}
@@ -0,0 +1,317 @@
+package com.cn.demo.propagation.listener;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.SignalType;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Description 信号记录的异步分发器
+ *
+ * 发射线程只把信号写入预分配的环形缓冲区，日志/指标导出等副作用由后台线程批量处理，不再占用管道的延迟
+ *
+ * 1、多生产者有界环 (每个槽位一个序号，Vyukov MPMC 算法)，槽位中的 {@link SignalRecord} 预先分配并复用，写入只修改字段
+ * 2、缓冲区满时直接丢弃并计数 ({@link #dropped()})，发射线程永远不会阻塞，也不会 unpark 消费线程
+ * 3、后台线程一次最多处理 batchSize 条记录，结束时回调 {@link Handler#onBatchEnd(int)}，空闲时 park idleNanos
+ * 4、默认不保存 onNext 的值，只记录信号类型、订阅 id、时间戳与 long 参数，避免延长元素的生命周期
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 14:00
+ * @Version V1.0
+ */
+public final class AsyncSignalDispatcher implements Disposable {
+
+    static final Logger log = Loggers.getLogger(AsyncSignalDispatcher.class);
+
+    final SignalRecord[] records;
+
+    final AtomicLongArray sequences;
+
+    final int mask;
+
+    final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 只由消费线程读写
+     */
+    long head;
+
+    final LongAdder dropped = new LongAdder();
+
+    final AtomicLong subscriptionIds = new AtomicLong();
+
+    final Handler handler;
+
+    final boolean captureValues;
+
+    final int batchSize;
+
+    final long idleNanos;
+
+    final Thread consumer;
+
+    volatile boolean disposed;
+
+    AsyncSignalDispatcher(Builder builder) {
+        int capacity = Queues.ceilingNextPowerOfTwo(builder.capacity);
+        this.records = new SignalRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new SignalRecord();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.handler = builder.handler;
+        this.captureValues = builder.captureValues;
+        this.batchSize = builder.batchSize;
+        this.idleNanos = builder.idleNanos;
+        this.consumer = new Thread(this::consumeLoop, builder.threadName);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public static Builder builder(Handler handler) {
+        return new Builder(handler);
+    }
+
+    long nextSubscriptionId() {
+        return subscriptionIds.incrementAndGet();
+    }
+
+    /**
+     * @Description: 写入一条记录，缓冲区满或已关闭时丢弃
+     * @author Levi.Ding
+     * @date 2026/10/22 14:10
+     * @return : boolean 是否写入成功
+     */
+    boolean offer(long subscriptionId, SignalType type, long argument, @Nullable Object value) {
+        if (disposed) {
+            dropped.increment();
+            return false;
+        }
+        AtomicLong t = tail;
+        long pos = t.get();
+        for (;;) {
+            int index = (int) pos & mask;
+            long dif = sequences.get(index) - pos;
+            if (dif == 0L) {
+                if (t.compareAndSet(pos, pos + 1)) {
+                    SignalRecord r = records[index];
+                    r.timestamp = System.nanoTime();
+                    r.subscriptionId = subscriptionId;
+                    r.type = type;
+                    r.argument = argument;
+                    r.value = value;
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = t.get();
+            }
+            else if (dif < 0L) {
+                dropped.increment();
+                return false;
+            }
+            else {
+                pos = t.get();
+            }
+        }
+    }
+
+    void consumeLoop() {
+        for (;;) {
+            int n = drainBatch();
+            if (n == 0) {
+                if (disposed) {
+                    //关闭后处理完剩余的记录再退出
+                    while (drainBatch() != 0) {
+                    }
+                    return;
+                }
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    int drainBatch() {
+        int n = 0;
+        long h = head;
+        while (n < batchSize) {
+            int index = (int) h & mask;
+            if (sequences.get(index) != h + 1) {
+                break;
+            }
+            SignalRecord r = records[index];
+            try {
+                handler.onRecord(r);
+            }
+            catch (Throwable e) {
+                log.warn("AsyncSignalDispatcher handler failed", e);
+            }
+            r.value = null;
+            sequences.lazySet(index, h + records.length);
+            h++;
+            n++;
+        }
+        head = h;
+        if (n != 0) {
+            try {
+                handler.onBatchEnd(n);
+            }
+            catch (Throwable e) {
+                log.warn("AsyncSignalDispatcher handler failed", e);
+            }
+        }
+        return n;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public int capacity() {
+        return records.length;
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        LockSupport.unpark(consumer);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * 由消费线程回调，record 只在回调内有效，之后会被复用
+     */
+    public interface Handler {
+
+        void onRecord(SignalRecord record);
+
+        default void onBatchEnd(int size) {
+        }
+    }
+
+    /**
+     * 预分配并复用的信号记录
+     */
+    public static final class SignalRecord {
+
+        long timestamp;
+
+        long subscriptionId;
+
+        SignalType type;
+
+        long argument;
+
+        @Nullable
+        Object value;
+
+        /**
+         * System.nanoTime()
+         */
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public long subscriptionId() {
+            return subscriptionId;
+        }
+
+        public SignalType type() {
+            return type;
+        }
+
+        /**
+         * REQUEST 为请求数量，ON_SUBSCRIBE 为融合模式
+         */
+        public long argument() {
+            return argument;
+        }
+
+        /**
+         * ON_ERROR 为异常，AFTER_TERMINATE 为终止的 SignalType，captureValues 时 ON_NEXT 为元素，其余为 null
+         */
+        @Nullable
+        public Object value() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "SignalRecord{subscriptionId=" + subscriptionId +
+                    ", type=" + type +
+                    ", argument=" + argument +
+                    ", value=" + value + '}';
+        }
+    }
+
+    public static final class Builder {
+
+        final Handler handler;
+
+        int capacity = Queues.SMALL_BUFFER_SIZE * 32;
+
+        int batchSize = 256;
+
+        long idleNanos = TimeUnit.MICROSECONDS.toNanos(100);
+
+        boolean captureValues;
+
+        String threadName = "async-signal-dispatcher";
+
+        Builder(Handler handler) {
+            this.handler = Objects.requireNonNull(handler, "handler");
+        }
+
+        /**
+         * 向上取整为 2 的幂
+         */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize > 0 required but it was " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder idle(long time, TimeUnit unit) {
+            this.idleNanos = unit.toNanos(time);
+            return this;
+        }
+
+        public Builder captureValues(boolean captureValues) {
+            this.captureValues = captureValues;
+            return this;
+        }
+
+        public Builder threadName(String threadName) {
+            this.threadName = Objects.requireNonNull(threadName, "threadName");
+            return this;
+        }
+
+        public AsyncSignalDispatcher build() {
+            return new AsyncSignalDispatcher(this);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cn.demo.propagation.listener;
+
+import reactor.core.observability.DefaultSignalListener;
+import reactor.core.publisher.SignalType;
+
+/**
+ * @Description 把信号写入 {@link AsyncSignalDispatcher} 的 SignalListener
+ *
+ * 与 {@link DefaultThreadSignalListener} 相比，Consumer 不再在发射线程上执行，这里每个信号只是一次环形缓冲区写入，
+ * request/fusion 作为 long 字段写入，没有装箱
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 14:30
+ * @Version V1.0
+ */
+public final class AsyncSignalListener<T> extends DefaultSignalListener<T> {
+
+    final AsyncSignalDispatcher dispatcher;
+
+    final long subscriptionId;
+
+    public AsyncSignalListener(AsyncSignalDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        this.subscriptionId = dispatcher.nextSubscriptionId();
+    }
+
+    @Override
+    public void doFirst() {
+        dispatcher.offer(subscriptionId, SignalType.SUBSCRIBE, 0L, null);
+    }
+
+    @Override
+    public void doOnFusion(int negotiatedFusion) {
+        dispatcher.offer(subscriptionId, SignalType.ON_SUBSCRIBE, negotiatedFusion, null);
+    }
+
+    @Override
+    public void doOnRequest(long requested) {
+        dispatcher.offer(subscriptionId, SignalType.REQUEST, requested, null);
+    }
+
+    @Override
+    public void doOnCancel() {
+        dispatcher.offer(subscriptionId, SignalType.CANCEL, 0L, null);
+    }
+
+    @Override
+    public void doOnNext(T value) {
+        dispatcher.offer(subscriptionId, SignalType.ON_NEXT, 0L, dispatcher.captureValues ? value : null);
+    }
+
+    @Override
+    public void doOnComplete() {
+        dispatcher.offer(subscriptionId, SignalType.ON_COMPLETE, 0L, null);
+    }
+
+    @Override
+    public void doOnError(Throwable error) {
+        dispatcher.offer(subscriptionId, SignalType.ON_ERROR, 0L, error);
+    }
+
+    @Override
+    public void doFinally(SignalType terminationType) {
+        dispatcher.offer(subscriptionId, SignalType.AFTER_TERMINATE, 0L, terminationType);
+    }
+}
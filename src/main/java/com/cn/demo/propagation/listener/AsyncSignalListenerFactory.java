@@ -0,0 +1,36 @@
+package com.cn.demo.propagation.listener;
+
+import org.reactivestreams.Publisher;
+import reactor.core.observability.SignalListener;
+import reactor.core.observability.SignalListenerFactory;
+import reactor.util.context.ContextView;
+
+import java.util.Objects;
+
+/**
+ * @Description {@link AsyncSignalListener} 的工厂，同一个 dispatcher 可以被多个 Publisher 共享
+ *
+ * 用法: flux.tap(new AsyncSignalListenerFactory<>(dispatcher))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 14:40
+ * @Version V1.0
+ */
+public final class AsyncSignalListenerFactory<T> implements SignalListenerFactory<T, AsyncSignalDispatcher> {
+
+    final AsyncSignalDispatcher dispatcher;
+
+    public AsyncSignalListenerFactory(AsyncSignalDispatcher dispatcher) {
+        this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
+    }
+
+    @Override
+    public AsyncSignalDispatcher initializePublisherState(Publisher<? extends T> source) {
+        return dispatcher;
+    }
+
+    @Override
+    public SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, AsyncSignalDispatcher publisherContext) {
+        return new AsyncSignalListener<>(publisherContext);
+    }
+}
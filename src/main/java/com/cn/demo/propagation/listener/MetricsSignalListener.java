@@ -0,0 +1,90 @@
+package com.cn.demo.propagation.listener;
+
+import reactor.core.observability.DefaultSignalListener;
+import reactor.core.publisher.SignalType;
+
+/**
+ * @Description 聚合指标的 SignalListener
+ *
+ * 与 {@link DefaultThreadSignalListener} 不同，这里不对每个信号回调 Consumer(request 的 long、fusion 的 int 都会被装箱)，
+ * 只把计数和耗时写入共享的 {@link SignalMetrics}，doOnNext 中只有 System.nanoTime() 与 LongAdder 操作，没有对象分配
+ *
+ * 每个订阅一个实例，信号是串行的，subscribedAt/lastNext 不需要 volatile
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 16:40
+ * @Version V1.0
+ */
+public final class MetricsSignalListener<T> extends DefaultSignalListener<T> {
+
+    final SignalMetrics metrics;
+
+    /**
+     * 每个信号计入的次数，未采样时为 1，由 {@link SamplingSignalListenerFactory} 按创建时的采样概率给出 1/p
+     */
+    final long weight;
+
+    long subscribedAt;
+
+    long lastNext;
+
+    public MetricsSignalListener(SignalMetrics metrics) {
+        this(metrics, 1L);
+    }
+
+    public MetricsSignalListener(SignalMetrics metrics, long weight) {
+        if (weight <= 0L) {
+            throw new IllegalArgumentException("weight > 0 required but it was " + weight);
+        }
+        this.metrics = metrics;
+        this.weight = weight;
+    }
+
+    @Override
+    public void doFirst() {
+        subscribedAt = System.nanoTime();
+        metrics.subscriptions.add(weight);
+    }
+
+    @Override
+    public void doOnRequest(long requested) {
+        //无界请求不计入，避免累加溢出
+        if (requested != Long.MAX_VALUE) {
+            metrics.requested.add(requested * weight);
+        }
+    }
+
+    @Override
+    public void doOnNext(T value) {
+        long now = System.nanoTime();
+        long last = lastNext;
+        if (last == 0L) {
+            metrics.firstElement.record(now - subscribedAt, weight);
+        }
+        else {
+            metrics.interArrival.record(now - last, weight);
+        }
+        lastNext = now;
+        metrics.onNext.add(weight);
+    }
+
+    @Override
+    public void doOnComplete() {
+        metrics.onComplete.add(weight);
+    }
+
+    @Override
+    public void doOnError(Throwable error) {
+        metrics.onError.add(weight);
+    }
+
+    @Override
+    public void doOnCancel() {
+        metrics.cancel.add(weight);
+    }
+
+    @Override
+    public void doFinally(SignalType terminationType) {
+        metrics.completion.record(System.nanoTime() - subscribedAt, weight);
+    }
+}
@@ -0,0 +1,46 @@
+package com.cn.demo.propagation.listener;
+
+import org.reactivestreams.Publisher;
+import reactor.core.observability.SignalListener;
+import reactor.util.context.ContextView;
+
+import java.util.Objects;
+
+/**
+ * @Description {@link MetricsSignalListener} 的工厂
+ *
+ * 同一个 Publisher 的所有订阅共享一个 {@link SignalMetrics}，也可以传入外部的 SignalMetrics 让多个 Publisher 聚合到一起
+ *
+ * 用法: flux.tap(new MetricsSignalListenerFactory<>(metrics))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 16:50
+ * @Version V1.0
+ */
+public final class MetricsSignalListenerFactory<T> implements SamplingSignalListenerFactory.WeightedFactory<T, SignalMetrics> {
+
+    final SignalMetrics metrics;
+
+    public MetricsSignalListenerFactory(SignalMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    public SignalMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public SignalMetrics initializePublisherState(Publisher<? extends T> source) {
+        return metrics;
+    }
+
+    @Override
+    public SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, SignalMetrics publisherContext) {
+        return new MetricsSignalListener<>(publisherContext);
+    }
+
+    @Override
+    public SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, SignalMetrics publisherContext, long weight) {
+        return new MetricsSignalListener<>(publisherContext, weight);
+    }
+}
@@ -0,0 +1,247 @@
+package com.cn.demo.propagation.listener;
+
+import org.reactivestreams.Publisher;
+import reactor.core.observability.SignalListener;
+import reactor.core.observability.SignalListenerFactory;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description 按订阅采样的 SignalListenerFactory
+ *
+ * 只有被 {@link Sampler} 选中的订阅才交给 delegate 创建完整的 listener，其余订阅共享同一个空实现 {@link #NOOP}，
+ * 空方法体很容易被 JIT 内联掉，未采样订阅的开销只剩 tap 算子本身的转发
+ *
+ * 1、{@link Sampler#oneIn(int)}: 每个订阅以 1/N 的概率被采样，使用 ThreadLocalRandom，订阅时没有共享的 CAS
+ * 2、{@link Sampler#perSecond(int)}: 每秒最多采样 limit 个订阅
+ *
+ * 外推: Sampler 在选中订阅时给出权重 1/p，delegate 创建的 listener 在之后的每个信号上都按这个权重计数，
+ * {@link SignalMetrics} 中读到的已经是外推后的值；权重在订阅创建时固定，
+ * 长期存活的订阅不会因为之后采样比例的变化而在后面的区间被错误放大
+ *
+ * 用法: flux.tap(new SamplingSignalListenerFactory<>(new MetricsSignalListenerFactory<>(metrics), Sampler.oneIn(100)))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 17:20
+ * @Version V1.0
+ */
+public final class SamplingSignalListenerFactory<T, STATE> implements SignalListenerFactory<T, STATE> {
+
+    static final SignalListener<Object> NOOP = new NoopSignalListener();
+
+    final WeightedFactory<T, STATE> delegate;
+
+    final Sampler sampler;
+
+    public SamplingSignalListenerFactory(WeightedFactory<T, STATE> delegate, Sampler sampler) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.sampler = Objects.requireNonNull(sampler, "sampler");
+    }
+
+    @Override
+    public STATE initializePublisherState(Publisher<? extends T> source) {
+        return delegate.initializePublisherState(source);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, STATE publisherContext) {
+        long weight = sampler.sample();
+        if (weight <= 0L) {
+            return (SignalListener<T>) NOOP;
+        }
+        return delegate.createListener(source, listenerContext, publisherContext, weight);
+    }
+
+    /**
+     * 能按权重记录信号的工厂，weight 为这个订阅代表的订阅数
+     */
+    public interface WeightedFactory<T, STATE> extends SignalListenerFactory<T, STATE> {
+
+        SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, STATE publisherContext, long weight);
+    }
+
+    /**
+     * 采样策略，每次订阅调用一次
+     */
+    @FunctionalInterface
+    public interface Sampler {
+
+        /**
+         * @return 未采样返回 0，采样时返回这个订阅的权重(采样概率的倒数)
+         */
+        long sample();
+
+        static Sampler always() {
+            return () -> 1L;
+        }
+
+        static Sampler oneIn(int n) {
+            if (n <= 0) {
+                throw new IllegalArgumentException("n > 0 required but it was " + n);
+            }
+            if (n == 1) {
+                return always();
+            }
+            return () -> ThreadLocalRandom.current().nextInt(n) == 0 ? n : 0L;
+        }
+
+        static Sampler perSecond(int limit) {
+            return new RateLimitedSampler(limit);
+        }
+    }
+
+    /**
+     * 高位为创建以来的秒数，低 20 位为当前秒内已采样的数量，一次 CAS 同时完成换窗口与计数
+     * 注) System.nanoTime() 可能为负，按创建时刻计算秒数，保证高位非负
+     *
+     * 权重: 同样按秒统计到达的订阅数，当前秒的采样概率用上一秒的 到达数/limit 估算，
+     * 小数部分按概率取整，使权重的期望等于估算值；创建后的第一秒以及空闲之后的第一秒没有参考，权重为 1
+     */
+    static final class RateLimitedSampler extends AtomicLong implements Sampler {
+
+        static final int COUNT_BITS = 20;
+
+        static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        static final int ARRIVAL_BITS = 32;
+
+        static final long ARRIVAL_MASK = (1L << ARRIVAL_BITS) - 1;
+
+        final int limit;
+
+        final long startNanos = System.nanoTime();
+
+        /**
+         * 高位为秒数，低 32 位为该秒内到达的订阅数
+         */
+        final AtomicLong arrivals = new AtomicLong();
+
+        /**
+         * 上一秒到达的订阅数，由换窗口的线程写入
+         */
+        volatile long previousArrivals;
+
+        RateLimitedSampler(int limit) {
+            if (limit <= 0 || limit > COUNT_MASK) {
+                throw new IllegalArgumentException("0 < limit <= " + COUNT_MASK + " required but it was " + limit);
+            }
+            this.limit = limit;
+        }
+
+        @Override
+        public long sample() {
+            long second = (System.nanoTime() - startNanos) / 1_000_000_000L;
+            arrive(second);
+            for (;;) {
+                long state = get();
+                long count = (state >>> COUNT_BITS) == second ? state & COUNT_MASK : 0L;
+                if (count >= limit) {
+                    return 0L;
+                }
+                if (compareAndSet(state, (second << COUNT_BITS) | (count + 1))) {
+                    return weight();
+                }
+            }
+        }
+
+        void arrive(long second) {
+            for (;;) {
+                long a = arrivals.get();
+                long s = a >>> ARRIVAL_BITS;
+                if (s >= second) {
+                    //另一个线程已经换到更新的窗口，计入该窗口即可
+                    if ((a & ARRIVAL_MASK) == ARRIVAL_MASK || arrivals.compareAndSet(a, a + 1)) {
+                        return;
+                    }
+                }
+                else if (arrivals.compareAndSet(a, (second << ARRIVAL_BITS) | 1L)) {
+                    previousArrivals = s == second - 1 ? a & ARRIVAL_MASK : 0L;
+                    return;
+                }
+            }
+        }
+
+        long weight() {
+            double w = (double) previousArrivals / limit;
+            if (w <= 1d) {
+                return 1L;
+            }
+            long whole = (long) w;
+            return ThreadLocalRandom.current().nextDouble() < w - whole ? whole + 1 : whole;
+        }
+    }
+
+    static final class NoopSignalListener implements SignalListener<Object> {
+
+        @Override
+        public void doFirst() {
+        }
+
+        @Override
+        public void doFinally(SignalType terminationType) {
+        }
+
+        @Override
+        public void doOnSubscription() {
+        }
+
+        @Override
+        public void doOnFusion(int negotiatedFusion) {
+        }
+
+        @Override
+        public void doOnRequest(long requested) {
+        }
+
+        @Override
+        public void doOnCancel() {
+        }
+
+        @Override
+        public void doOnNext(Object value) {
+        }
+
+        @Override
+        public void doOnComplete() {
+        }
+
+        @Override
+        public void doOnError(Throwable error) {
+        }
+
+        @Override
+        public void doAfterComplete() {
+        }
+
+        @Override
+        public void doAfterError(Throwable error) {
+        }
+
+        @Override
+        public void doOnMalformedOnNext(Object value) {
+        }
+
+        @Override
+        public void doOnMalformedOnError(Throwable error) {
+        }
+
+        @Override
+        public void doOnMalformedOnComplete() {
+        }
+
+        @Override
+        public void handleListenerError(Throwable listenerError) {
+        }
+
+        @Override
+        public Context addToContext(Context originalContext) {
+            return originalContext;
+        }
+    }
+}
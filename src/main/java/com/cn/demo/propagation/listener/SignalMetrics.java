@@ -0,0 +1,322 @@
+package com.cn.demo.propagation.listener;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * @Description 按 Publisher 聚合的信号指标
+ *
+ * 所有计数器与直方图在创建时预先分配，记录路径只有 LongAdder 的 increment/add，没有对象分配；
+ * 直方图按 2 的幂分桶 (log2)，分位数为所在桶的上界，误差在 2 倍以内，足够观察数量级变化
+ *
+ * {@link #snapshot()} 读取并清零当前区间的数据，{@link #startReporting(Duration, Consumer)} 按固定周期输出
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 16:20
+ * @Version V1.0
+ */
+public final class SignalMetrics {
+
+    final String name;
+
+    final LongAdder subscriptions = new LongAdder();
+
+    final LongAdder onNext = new LongAdder();
+
+    final LongAdder onComplete = new LongAdder();
+
+    final LongAdder onError = new LongAdder();
+
+    final LongAdder cancel = new LongAdder();
+
+    final LongAdder requested = new LongAdder();
+
+    /**
+     * 订阅到第一个元素的耗时
+     */
+    final Log2Histogram firstElement = new Log2Histogram();
+
+    /**
+     * 相邻两个元素的间隔
+     */
+    final Log2Histogram interArrival = new Log2Histogram();
+
+    /**
+     * 订阅到终止(complete/error/cancel)的耗时
+     */
+    final Log2Histogram completion = new Log2Histogram();
+
+    public SignalMetrics(String name) {
+        this.name = Objects.requireNonNull(name, "name");
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @Description: 读取当前区间的数据并清零
+     * @author Levi.Ding
+     * @date 2026/10/21 16:30
+     * @return : com.cn.demo.propagation.listener.SignalMetrics.Snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(name,
+                subscriptions.sumThenReset(),
+                onNext.sumThenReset(),
+                onComplete.sumThenReset(),
+                onError.sumThenReset(),
+                cancel.sumThenReset(),
+                requested.sumThenReset(),
+                firstElement.snapshot(),
+                interArrival.snapshot(),
+                completion.snapshot());
+    }
+
+    public Disposable startReporting(Duration period, Consumer<? super Snapshot> reporter) {
+        return startReporting(period, reporter, Schedulers.parallel());
+    }
+
+    /**
+     * @Description: 按 period 周期输出 {@link #snapshot()}
+     * @author Levi.Ding
+     * @date 2026/10/21 16:32
+     * @param period :
+     * @param reporter :
+     * @param scheduler :
+     * @return : reactor.core.Disposable
+     */
+    public Disposable startReporting(Duration period, Consumer<? super Snapshot> reporter, Scheduler scheduler) {
+        Objects.requireNonNull(reporter, "reporter");
+        long nanos = period.toNanos();
+        return scheduler.schedulePeriodically(() -> reporter.accept(snapshot()), nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 2 的幂分桶的直方图，bucket[i] 统计 [2^(i-1), 2^i) 范围内的值
+     */
+    static final class Log2Histogram {
+
+        static final int BUCKETS = 64;
+
+        final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        final LongAdder sum = new LongAdder();
+
+        final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+        Log2Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            record(value, 1L);
+        }
+
+        /**
+         * weight 为这一次记录代表的样本数，采样的 listener 以 1/p 记录
+         */
+        void record(long value, long weight) {
+            if (value < 0L) {
+                value = 0L;
+            }
+            buckets[Math.min(BUCKETS - Long.numberOfLeadingZeros(value), BUCKETS - 1)].add(weight);
+            sum.add(value * weight);
+            max.accumulate(value);
+        }
+
+        HistogramSnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sumThenReset();
+            }
+            return new HistogramSnapshot(counts, sum.sumThenReset(), max.getThenReset());
+        }
+    }
+
+    public static final class HistogramSnapshot {
+
+        final long[] counts;
+
+        final long count;
+
+        final long sum;
+
+        final long max;
+
+        HistogramSnapshot(long[] counts, long sum, long max) {
+            this.counts = counts;
+            long c = 0L;
+            for (long n : counts) {
+                c += n;
+            }
+            this.count = c;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double mean() {
+            return count == 0L ? 0.0 : (double) sum / count;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        /**
+         * @param quantile 0 ~ 1
+         * @return 分位数所在桶的上界，不超过 max
+         */
+        public long percentile(double quantile) {
+            if (count == 0L) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0L : Math.min(i >= 63 ? Long.MAX_VALUE : (1L << i) - 1, max);
+                }
+            }
+            return max;
+        }
+
+        HistogramSnapshot scale(double factor) {
+            long[] scaled = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                scaled[i] = Math.round(counts[i] * factor);
+            }
+            return new HistogramSnapshot(scaled, Math.round(sum * factor), max);
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count +
+                    ", mean=" + TimeUnit.NANOSECONDS.toMicros((long) mean()) + "µs" +
+                    ", p50=" + TimeUnit.NANOSECONDS.toMicros(percentile(0.5)) + "µs" +
+                    ", p99=" + TimeUnit.NANOSECONDS.toMicros(percentile(0.99)) + "µs" +
+                    ", max=" + TimeUnit.NANOSECONDS.toMicros(max) + "µs}";
+        }
+    }
+
+    public static final class Snapshot {
+
+        final String name;
+
+        final long subscriptions;
+
+        final long onNext;
+
+        final long onComplete;
+
+        final long onError;
+
+        final long cancel;
+
+        final long requested;
+
+        final HistogramSnapshot firstElement;
+
+        final HistogramSnapshot interArrival;
+
+        final HistogramSnapshot completion;
+
+        Snapshot(String name, long subscriptions, long onNext, long onComplete, long onError, long cancel, long requested,
+                 HistogramSnapshot firstElement, HistogramSnapshot interArrival, HistogramSnapshot completion) {
+            this.name = name;
+            this.subscriptions = subscriptions;
+            this.onNext = onNext;
+            this.onComplete = onComplete;
+            this.onError = onError;
+            this.cancel = cancel;
+            this.requested = requested;
+            this.firstElement = firstElement;
+            this.interArrival = interArrival;
+            this.completion = completion;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long subscriptions() {
+            return subscriptions;
+        }
+
+        public long onNext() {
+            return onNext;
+        }
+
+        public long onComplete() {
+            return onComplete;
+        }
+
+        public long onError() {
+            return onError;
+        }
+
+        public long cancel() {
+            return cancel;
+        }
+
+        public long requested() {
+            return requested;
+        }
+
+        public HistogramSnapshot firstElement() {
+            return firstElement;
+        }
+
+        public HistogramSnapshot interArrival() {
+            return interArrival;
+        }
+
+        public HistogramSnapshot completion() {
+            return completion;
+        }
+
+        /**
+         * 计数按 factor 放大，用于采样后的外推；耗时分布不变
+         */
+        public Snapshot scale(double factor) {
+            return new Snapshot(name,
+                    Math.round(subscriptions * factor),
+                    Math.round(onNext * factor),
+                    Math.round(onComplete * factor),
+                    Math.round(onError * factor),
+                    Math.round(cancel * factor),
+                    Math.round(requested * factor),
+                    firstElement.scale(factor),
+                    interArrival.scale(factor),
+                    completion.scale(factor));
+        }
+
+        @Override
+        public String toString() {
+            return name + "{subscriptions=" + subscriptions +
+                    ", onNext=" + onNext +
+                    ", onComplete=" + onComplete +
+                    ", onError=" + onError +
+                    ", cancel=" + cancel +
+                    ", requested=" + requested +
+                    ", firstElement=" + firstElement +
+                    ", interArrival=" + interArrival +
+                    ", completion=" + completion + '}';
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.cn.demo.propagation.restore;
+
+import com.cn.demo.operators.fusion.FusedStage;
+import io.micrometer.context.ContextRegistry;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * @Description 带 ThreadLocal 恢复的 {@link FusedStage}，用来代替 contextCapture() + handle()
+ *
+ * handle() 在每个元素上都执行 ContextPropagation.contextRestoreForHandle: 遍历所有 accessor、setValue、执行 handler、reset
+ * ({@link com.cn.demo.propagation.Demo1#handleTapThreadLocal()})，这里
+ *
+ * 1、订阅时通过 {@link RestoreScope} 解析一次需要恢复的 accessor 和值，之后每个元素只遍历数组
+ * 2、线程上已经是同一个值时跳过 setValue/reset
+ * 3、上游支持 SYNC 融合时(range/fromIterable/fromArray 等)，由本阶段在 request 中直接 poll 上游，
+ *    一个批次只 open/close 一次，多个 map/filter 通过 {@link FusedStage#then(FusedStage)} 合并后也只恢复一次；
+ *    此时批次内下游的 onNext 也运行在恢复后的 ThreadLocal 中
+ * 4、不能融合时退化为逐个元素 open/close，被过滤的元素走 ConditionalSubscriber 不额外 request(1)
+ *
+ * 用法: flux.transform(CachedContextRestore.stage(FusedStage.map(...))).contextCapture()
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 18:10
+ * @Version V1.0
+ */
+public final class CachedContextRestore {
+
+    private CachedContextRestore() {
+    }
+
+    public static <I, O> Function<Flux<I>, Flux<O>> stage(FusedStage<? super I, ? extends O> stage) {
+        return stage(stage, ContextRegistry.getInstance());
+    }
+
+    public static <I, O> Function<Flux<I>, Flux<O>> stage(FusedStage<? super I, ? extends O> stage, ContextRegistry registry) {
+        Objects.requireNonNull(stage, "stage");
+        Objects.requireNonNull(registry, "registry");
+        return source -> new RestoringFlux<>(source, stage, registry);
+    }
+
+    static final class RestoringFlux<I, O> extends Flux<O> implements Scannable {
+
+        final Publisher<? extends I> source;
+
+        final FusedStage<? super I, ? extends O> stage;
+
+        final ContextRegistry registry;
+
+        RestoringFlux(Publisher<? extends I> source, FusedStage<? super I, ? extends O> stage, ContextRegistry registry) {
+            this.source = source;
+            this.stage = stage;
+            this.registry = registry;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super O> actual) {
+            source.subscribe(new RestoringSubscriber<>(actual, stage, registry));
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return source;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.SYNC;
+            return null;
+        }
+    }
+
+    static final class RestoringSubscriber<I, O> implements Fuseable.ConditionalSubscriber<I>, Subscription, Scannable {
+
+        final CoreSubscriber<? super O> actual;
+
+        final FusedStage<? super I, ? extends O> stage;
+
+        final ContextRegistry registry;
+
+        RestoreScope scope;
+
+        Subscription s;
+
+        /**
+         * 非 null 表示上游已进入 SYNC 融合，由 request 驱动 poll
+         */
+        @Nullable
+        Fuseable.QueueSubscription<I> qs;
+
+        boolean done;
+
+        volatile boolean cancelled;
+
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<RestoringSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(RestoringSubscriber.class, "wip");
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<RestoringSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(RestoringSubscriber.class, "requested");
+
+        RestoringSubscriber(CoreSubscriber<? super O> actual, FusedStage<? super I, ? extends O> stage, ContextRegistry registry) {
+            this.actual = actual;
+            this.stage = stage;
+            this.registry = registry;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                this.scope = RestoreScope.of(registry, actual.currentContext());
+                if (s instanceof Fuseable.QueueSubscription) {
+                    Fuseable.QueueSubscription<I> q = (Fuseable.QueueSubscription<I>) s;
+                    if (q.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+                        this.qs = q;
+                    }
+                }
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(I t) {
+            if (!tryOnNext(t)) {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public boolean tryOnNext(I t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return true;
+            }
+            O o;
+            RestoreScope sc = scope;
+            sc.open();
+            try {
+                o = stage.apply(t);
+            }
+            catch (Throwable e) {
+                sc.close();
+                onError(Operators.onOperatorError(s, e, t, actual.currentContext()));
+                return true;
+            }
+            sc.close();
+            if (o == null) {
+                Operators.onDiscard(t, actual.currentContext());
+                return false;
+            }
+            actual.onNext(o);
+            return true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (qs == null) {
+                s.request(n);
+                return;
+            }
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drainSync();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            s.cancel();
+        }
+
+        void drainSync() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            Fuseable.QueueSubscription<I> q = qs;
+            int missed = 1;
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                RestoreScope sc = scope;
+                sc.open();
+                try {
+                    while (e != r) {
+                        if (cancelled) {
+                            q.clear();
+                            return;
+                        }
+                        I v;
+                        O o;
+                        try {
+                            v = q.poll();
+                            if (v == null) {
+                                done = true;
+                                actual.onComplete();
+                                return;
+                            }
+                            o = stage.apply(v);
+                        }
+                        catch (Throwable ex) {
+                            done = true;
+                            actual.onError(Operators.onOperatorError(s, ex, actual.currentContext()));
+                            return;
+                        }
+                        if (o == null) {
+                            Operators.onDiscard(v, actual.currentContext());
+                            continue;
+                        }
+                        actual.onNext(o);
+                        e++;
+                    }
+                    if (cancelled) {
+                        q.clear();
+                        return;
+                    }
+                    if (q.isEmpty()) {
+                        done = true;
+                        actual.onComplete();
+                        return;
+                    }
+                }
+                finally {
+                    sc.close();
+                }
+                if (e != 0L) {
+                    Operators.produced(REQUESTED, this, e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return s;
+            if (key == Attr.ACTUAL) return actual;
+            if (key == Attr.TERMINATED) return done;
+            if (key == Attr.CANCELLED) return cancelled;
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return qs == null ? null : requested;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.SYNC;
+            return null;
+        }
+    }
+}
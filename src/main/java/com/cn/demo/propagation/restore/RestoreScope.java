@@ -0,0 +1,98 @@
+package com.cn.demo.propagation.restore;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ThreadLocalAccessor;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Description 订阅级别缓存的 ThreadLocal 恢复范围
+ *
+ * ContextPropagation.contextRestoreForHandle 每个元素都要遍历 ContextRegistry 中所有的 accessor、查 Context、
+ * 再对每个 accessor 执行 setValue/reset；这里在订阅时一次性解析出 Context 中存在的 accessor 与对应的值，保存为数组
+ *
+ * open(): 当前线程已持有同一个对象(==)时跳过 setValue，close() 时也不需要恢复
+ * close(): 只恢复 open() 中真正修改过的 accessor，之前没有值的调用 reset()
+ *
+ * 非线程安全，一个订阅一个实例，open/close 必须成对并在同一个线程上调用
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/21 18:00
+ * @Version V1.0
+ */
+final class RestoreScope {
+
+    static final RestoreScope EMPTY = new RestoreScope(new ThreadLocalAccessor[0], new Object[0]);
+
+    final ThreadLocalAccessor<Object>[] accessors;
+
+    final Object[] values;
+
+    final Object[] previous;
+
+    final boolean[] changed;
+
+    RestoreScope(ThreadLocalAccessor<Object>[] accessors, Object[] values) {
+        this.accessors = accessors;
+        this.values = values;
+        this.previous = new Object[accessors.length];
+        this.changed = new boolean[accessors.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    static RestoreScope of(ContextRegistry registry, ContextView context) {
+        if (context.isEmpty()) {
+            return EMPTY;
+        }
+        List<ThreadLocalAccessor<Object>> accessors = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (ThreadLocalAccessor<?> accessor : registry.getThreadLocalAccessors()) {
+            Object value = context.getOrDefault(accessor.key(), null);
+            if (value != null) {
+                accessors.add((ThreadLocalAccessor<Object>) accessor);
+                values.add(value);
+            }
+        }
+        if (accessors.isEmpty()) {
+            return EMPTY;
+        }
+        return new RestoreScope(accessors.toArray(new ThreadLocalAccessor[0]), values.toArray());
+    }
+
+    boolean isEmpty() {
+        return accessors.length == 0;
+    }
+
+    void open() {
+        ThreadLocalAccessor<Object>[] a = accessors;
+        for (int i = 0; i < a.length; i++) {
+            Object current = a[i].getValue();
+            if (current == values[i]) {
+                continue;
+            }
+            previous[i] = current;
+            changed[i] = true;
+            a[i].setValue(values[i]);
+        }
+    }
+
+    void close() {
+        ThreadLocalAccessor<Object>[] a = accessors;
+        for (int i = a.length - 1; i >= 0; i--) {
+            if (!changed[i]) {
+                continue;
+            }
+            changed[i] = false;
+            Object p = previous[i];
+            previous[i] = null;
+            if (p == null) {
+                a[i].reset();
+            }
+            else {
+                a[i].setValue(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * @Description 根据排队等待时间自动调整线程上限的弹性 Scheduler
+ *
+ * boundedElastic 的上限固定为 CPU 核心数 x 10 (队列 100000)，与实际的阻塞时长无关: 阻塞时间长时线程不够、任务在队列中等待，
+ * 下游已经饱和时再多的线程也只是增加争用
+ *
+ * 这里的线程池上限在 [minThreads, maxThreads] 之间浮动，定时器每 sampleInterval 采样一次吞吐与平均等待，交给 {@link HillClimbing}:
+ * 等待超过 targetWait 并且扩容后吞吐仍在提升时继续扩容，扩容不再带来提升或者线程空闲时缩容
+ *
+ * 1、任务进入一个共享的有界队列 (maxQueued)，超出时抛出 RejectedExecutionException
+ * 2、Worker 为 {@link SerialWorker}，保证 Worker 内的执行顺序
+ * 3、延迟/周期任务共用定时器线程，到期后再进入队列
+ * 4、每次采样的结果可以通过 {@link Builder#onSample(Consumer)} 获取，{@link #lastSample()} 为最近一次
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/23 16:30
+ * @Version V1.0
+ */
+public final class AdaptiveElasticScheduler implements Scheduler, Scannable, TaskDispatcher {
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    final String name;
+
+    final ThreadPoolExecutor pool;
+
+    final ScheduledExecutorService timer;
+
+    final HillClimbing controller;
+
+    final long sampleIntervalNanos;
+
+    @Nullable
+    final Consumer<? super Sample> onSample;
+
+    final LongAdder waitNanos = new LongAdder();
+
+    final LongAdder started = new LongAdder();
+
+    final LongAdder completed = new LongAdder();
+
+    volatile int cap;
+
+    volatile Sample lastSample;
+
+    long lastSampleTime;
+
+    AdaptiveElasticScheduler(Builder builder) {
+        this.name = builder.name;
+        this.cap = builder.minThreads;
+        this.onSample = builder.onSample;
+        this.sampleIntervalNanos = builder.sampleInterval.toNanos();
+        this.controller = new HillClimbing(builder.minThreads, builder.maxThreads, builder.step,
+                builder.targetWait.toNanos(), builder.minImprovement);
+        AtomicLong counter = new AtomicLong();
+        this.pool = new ThreadPoolExecutor(builder.minThreads, builder.minThreads,
+                builder.keepAlive.toNanos(), TimeUnit.NANOSECONDS,
+                new LinkedBlockingQueue<>(builder.maxQueued),
+                r -> {
+                    Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.pool.allowCoreThreadTimeOut(true);
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.lastSample = new Sample(cap, 0.0, 0L, 0, 0);
+        this.lastSampleTime = System.nanoTime();
+        this.timer.scheduleAtFixedRate(this::sample, sampleIntervalNanos, sampleIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        ScheduledTask t = new ScheduledTask(task, null);
+        execute(t);
+        return t;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0L) {
+            return schedule(task);
+        }
+        ScheduledTask t = new ScheduledTask(task, null);
+        t.future = delay(() -> {
+            if (!t.isDisposed()) {
+                try {
+                    execute(t);
+                }
+                catch (RejectedExecutionException e) {
+                    t.dispose();
+                    Operators.onErrorDropped(e, Context.empty());
+                }
+            }
+        }, delay, unit);
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask p = new PeriodicTask(task, null, this::execute);
+        p.future = periodically(p, initialDelay, period, unit);
+        return p;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(this, this, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long enqueued = System.nanoTime();
+        try {
+            pool.execute(() -> {
+                waitNanos.add(System.nanoTime() - enqueued);
+                started.increment();
+                try {
+                    task.run();
+                }
+                finally {
+                    completed.increment();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> delay(Runnable task, long delay, TimeUnit unit) {
+        try {
+            return timer.schedule(task, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> periodically(PeriodicTask task, long initialDelay, long period, TimeUnit unit) {
+        return PeriodicTask.schedule(timer, task, initialDelay, period, unit);
+    }
+
+    /**
+     * 定时器线程上执行，异常会终止 scheduleAtFixedRate，这里只交给 onErrorDropped，下个周期继续采样
+     */
+    void sample() {
+        try {
+            sampleOnce();
+        }
+        catch (Throwable e) {
+            Operators.onErrorDropped(e, Context.empty());
+        }
+    }
+
+    void sampleOnce() {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1L, now - lastSampleTime);
+        lastSampleTime = now;
+        long done = completed.sumThenReset();
+        long n = started.sumThenReset();
+        long wait = waitNanos.sumThenReset();
+        double throughput = done * 1_000_000_000.0 / elapsed;
+        long avgWait = n == 0L ? 0L : wait / n;
+        int queued = pool.getQueue().size();
+        int active = pool.getActiveCount();
+
+        int current = cap;
+        int next = controller.update(current, throughput, avgWait, queued, active);
+        if (next > current) {
+            pool.setMaximumPoolSize(next);
+            pool.setCorePoolSize(next);
+        }
+        else if (next < current) {
+            pool.setCorePoolSize(next);
+            pool.setMaximumPoolSize(next);
+        }
+        cap = next;
+
+        Sample s = new Sample(next, throughput, avgWait, queued, active);
+        lastSample = s;
+        if (onSample != null) {
+            onSample.accept(s);
+        }
+    }
+
+    public int currentCap() {
+        return cap;
+    }
+
+    public Sample lastSample() {
+        return lastSample;
+    }
+
+    @Override
+    public void dispose() {
+        timer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return pool.isShutdown();
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+        if (key == Attr.NAME) return name;
+        if (key == Attr.CAPACITY) return cap;
+        if (key == Attr.BUFFERED) return pool.getQueue().size();
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveElasticScheduler(\"" + name + "\", cap=" + cap + ")";
+    }
+
+    /**
+     * 一次采样的结果，cap 为调整后的上限
+     */
+    public static final class Sample {
+
+        final int cap;
+
+        final double throughput;
+
+        final long avgWaitNanos;
+
+        final int queued;
+
+        final int active;
+
+        Sample(int cap, double throughput, long avgWaitNanos, int queued, int active) {
+            this.cap = cap;
+            this.throughput = throughput;
+            this.avgWaitNanos = avgWaitNanos;
+            this.queued = queued;
+            this.active = active;
+        }
+
+        public int cap() {
+            return cap;
+        }
+
+        /**
+         * 每秒完成的任务数
+         */
+        public double throughput() {
+            return throughput;
+        }
+
+        public long avgWaitNanos() {
+            return avgWaitNanos;
+        }
+
+        public int queued() {
+            return queued;
+        }
+
+        public int active() {
+            return active;
+        }
+
+        @Override
+        public String toString() {
+            return "Sample{cap=" + cap +
+                    ", throughput=" + Math.round(throughput) + "/s" +
+                    ", avgWait=" + TimeUnit.NANOSECONDS.toMillis(avgWaitNanos) + "ms" +
+                    ", queued=" + queued +
+                    ", active=" + active + '}';
+        }
+    }
+
+    public static final class Builder {
+
+        final String name;
+
+        int minThreads = Runtime.getRuntime().availableProcessors();
+
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 50;
+
+        int maxQueued = 100_000;
+
+        int step = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        Duration targetWait = Duration.ofMillis(10);
+
+        Duration sampleInterval = Duration.ofMillis(500);
+
+        Duration keepAlive = Duration.ofSeconds(60);
+
+        double minImprovement = 0.05;
+
+        @Nullable
+        Consumer<? super Sample> onSample;
+
+        Builder(String name) {
+            this.name = Objects.requireNonNull(name, "name");
+        }
+
+        public Builder threads(int minThreads, int maxThreads) {
+            if (minThreads <= 0 || maxThreads < minThreads) {
+                throw new IllegalArgumentException("0 < minThreads <= maxThreads required but it was " + minThreads + ", " + maxThreads);
+            }
+            this.minThreads = minThreads;
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        public Builder maxQueued(int maxQueued) {
+            if (maxQueued <= 0) {
+                throw new IllegalArgumentException("maxQueued > 0 required but it was " + maxQueued);
+            }
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        /**
+         * 每次调整的线程数
+         */
+        public Builder step(int step) {
+            if (step <= 0) {
+                throw new IllegalArgumentException("step > 0 required but it was " + step);
+            }
+            this.step = step;
+            return this;
+        }
+
+        /**
+         * 平均排队等待超过该值时认为线程不足
+         */
+        public Builder targetWait(Duration targetWait) {
+            this.targetWait = Objects.requireNonNull(targetWait, "targetWait");
+            return this;
+        }
+
+        public Builder sampleInterval(Duration sampleInterval) {
+            this.sampleInterval = Objects.requireNonNull(sampleInterval, "sampleInterval");
+            return this;
+        }
+
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = Objects.requireNonNull(keepAlive, "keepAlive");
+            return this;
+        }
+
+        /**
+         * 扩容后吞吐至少提升的比例，默认 0.05
+         */
+        public Builder minImprovement(double minImprovement) {
+            this.minImprovement = minImprovement;
+            return this;
+        }
+
+        public Builder onSample(Consumer<? super Sample> onSample) {
+            this.onSample = Objects.requireNonNull(onSample, "onSample");
+            return this;
+        }
+
+        public AdaptiveElasticScheduler build() {
+            return new AdaptiveElasticScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.cn.demo.schedulers;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * @Description 按微批次唤醒消费线程的 publishOn
+ *
+ * {@link Demo12} 中的 publishOn 每次 onNext 都会 trySchedule: 消费线程空闲(WIP 为 0)时 worker.schedule(this)，
+ * 也就是一次入队 + LockSupport.unpark。上下游速率接近时消费线程很快追上生产者、回到空闲，几乎每个元素都会唤醒一次
+ *
+ * 当前实现
+ * 1、消费线程空闲时，onNext 只入队并在 window 后安排一次唤醒 (同一时刻最多一个定时唤醒)
+ * 2、累计 maxBatch 个元素时立即唤醒，不等 window
+ * 3、消费线程正在 drain 时只增加 WIP，与内置实现一样不再唤醒
+ * 4、onComplete/onError/下游 request 立即唤醒
+ *
+ * 唤醒次数不超过 元素数 / maxBatch + 时长 / window，代价是空闲后到达的元素最多多等待 window；
+ * 延迟与吞吐的关系见 {@link com.cn.benchmark.schedulers.BatchPublishOnBenchmark}
+ *
+ * 注) 与 publishOn(scheduler) 默认一致为 delayError，错误在队列中的元素发送完之后再发出；不参与融合
+ *
+ * 用法: flux.transform(BatchPublishOn.publishOn(scheduler, 256, Duration.ofMillis(1)))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/24 10:20
+ * @Version V1.0
+ */
+public final class BatchPublishOn {
+
+    private BatchPublishOn() {
+    }
+
+    public static <T> Function<Flux<T>, Flux<T>> publishOn(Scheduler scheduler, int maxBatch, Duration window) {
+        return publishOn(scheduler, maxBatch, window, Math.max(Queues.SMALL_BUFFER_SIZE, maxBatch * 2));
+    }
+
+    /**
+     * @Description: 按微批次唤醒的 publishOn
+     * @author Levi.Ding
+     * @date 2026/10/24 10:30
+     * @param scheduler : 消费线程
+     * @param maxBatch : 累计多少个元素后立即唤醒
+     * @param window : 空闲后第一个元素到达时，最多等待多久唤醒
+     * @param prefetch : 向上游请求的数量，即队列容量，不小于 maxBatch
+     * @return : java.util.function.Function<reactor.core.publisher.Flux<T>,reactor.core.publisher.Flux<T>>
+     */
+    public static <T> Function<Flux<T>, Flux<T>> publishOn(Scheduler scheduler, int maxBatch, Duration window, int prefetch) {
+        Objects.requireNonNull(scheduler, "scheduler");
+        Objects.requireNonNull(window, "window");
+        if (maxBatch <= 0 || prefetch < maxBatch) {
+            throw new IllegalArgumentException("0 < maxBatch <= prefetch required but it was " + maxBatch + ", " + prefetch);
+        }
+        long windowNanos = window.toNanos();
+        return source -> new BatchPublishOnFlux<>(source, scheduler, maxBatch, windowNanos, prefetch);
+    }
+
+    static final class BatchPublishOnFlux<T> extends Flux<T> implements Scannable {
+
+        final Publisher<? extends T> source;
+
+        final Scheduler scheduler;
+
+        final int maxBatch;
+
+        final long windowNanos;
+
+        final int prefetch;
+
+        BatchPublishOnFlux(Publisher<? extends T> source, Scheduler scheduler, int maxBatch, long windowNanos, int prefetch) {
+            this.source = source;
+            this.scheduler = scheduler;
+            this.maxBatch = maxBatch;
+            this.windowNanos = windowNanos;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super T> actual) {
+            Scheduler.Worker worker;
+            try {
+                worker = Objects.requireNonNull(scheduler.createWorker(), "The scheduler returned a null Worker");
+            }
+            catch (Throwable e) {
+                Operators.error(actual, Operators.onOperatorError(e, actual.currentContext()));
+                return;
+            }
+            source.subscribe(new BatchPublishOnSubscriber<>(actual, worker, maxBatch, windowNanos, prefetch));
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return source;
+            if (key == Attr.RUN_ON) return scheduler;
+            if (key == Attr.PREFETCH) return prefetch;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.ASYNC;
+            return null;
+        }
+    }
+
+    static final class BatchPublishOnSubscriber<T> implements CoreSubscriber<T>, Subscription, Runnable, Scannable {
+
+        final CoreSubscriber<? super T> actual;
+
+        final Scheduler.Worker worker;
+
+        final int maxBatch;
+
+        final long windowNanos;
+
+        final int prefetch;
+
+        /**
+         * 消费多少个元素后向上游补充请求
+         */
+        final int limit;
+
+        final Queue<T> queue;
+
+        Subscription s;
+
+        /**
+         * 自上次按数量唤醒后入队的元素数，只在 onNext 中读写
+         */
+        int batched;
+
+        /**
+         * 已发送但尚未向上游补充请求的数量，只在 drain 中读写
+         */
+        int consumed;
+
+        long produced;
+
+        volatile boolean done;
+
+        @Nullable
+        Throwable error;
+
+        volatile boolean cancelled;
+
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<BatchPublishOnSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(BatchPublishOnSubscriber.class, "wip");
+
+        /**
+         * 1 表示已安排一次定时唤醒
+         */
+        volatile int armed;
+        static final AtomicIntegerFieldUpdater<BatchPublishOnSubscriber> ARMED =
+                AtomicIntegerFieldUpdater.newUpdater(BatchPublishOnSubscriber.class, "armed");
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<BatchPublishOnSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(BatchPublishOnSubscriber.class, "requested");
+
+        BatchPublishOnSubscriber(CoreSubscriber<? super T> actual, Scheduler.Worker worker, int maxBatch, long windowNanos, int prefetch) {
+            this.actual = actual;
+            this.worker = worker;
+            this.maxBatch = maxBatch;
+            this.windowNanos = windowNanos;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = Queues.<T>get(prefetch).get();
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return;
+            }
+            if (!queue.offer(t)) {
+                Operators.onDiscard(t, actual.currentContext());
+                error = Operators.onOperatorError(s, Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL),
+                        t, actual.currentContext());
+                done = true;
+                wake();
+                return;
+            }
+            if (++batched >= maxBatch) {
+                batched = 0;
+                wake();
+            }
+            else if (wip != 0) {
+                //消费线程正在 drain，只增加 WIP
+                wake();
+            }
+            else {
+                arm();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            error = t;
+            done = true;
+            wake();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            wake();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                wake();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            s.cancel();
+            worker.dispose();
+            if (WIP.getAndIncrement(this) == 0) {
+                Operators.onDiscardQueueWithClear(queue, actual.currentContext(), null);
+            }
+        }
+
+        /**
+         * 安排 window 后的唤醒，已安排时忽略
+         */
+        void arm() {
+            if (!ARMED.compareAndSet(this, 0, 1)) {
+                return;
+            }
+            try {
+                worker.schedule(this::onWindow, windowNanos, TimeUnit.NANOSECONDS);
+            }
+            catch (RejectedExecutionException e) {
+                armed = 0;
+                wake();
+            }
+        }
+
+        /**
+         * 运行在 worker 线程上，直接 drain，不再经过一次 schedule
+         */
+        void onWindow() {
+            armed = 0;
+            if (WIP.getAndIncrement(this) == 0) {
+                run();
+            }
+        }
+
+        void wake() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            try {
+                worker.schedule(this);
+            }
+            catch (RejectedExecutionException e) {
+                if (cancelled) {
+                    Operators.onDiscardQueueWithClear(queue, actual.currentContext(), null);
+                    return;
+                }
+                s.cancel();
+                Operators.onDiscardQueueWithClear(queue, actual.currentContext(), null);
+                actual.onError(Operators.onRejectedExecution(e, s, error, null, actual.currentContext()));
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            long e = produced;
+            Queue<T> q = queue;
+            for (;;) {
+                long r = requested;
+                while (e != r) {
+                    boolean d = done;
+                    T v = q.poll();
+                    boolean empty = v == null;
+                    if (checkTerminated(d, empty)) {
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    actual.onNext(v);
+                    e++;
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        s.request(limit);
+                    }
+                }
+                if (e == r && checkTerminated(done, q.isEmpty())) {
+                    return;
+                }
+                int w = wip;
+                if (missed == w) {
+                    produced = e;
+                    missed = WIP.addAndGet(this, -missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                }
+                else {
+                    missed = w;
+                }
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                Operators.onDiscardQueueWithClear(queue, actual.currentContext(), null);
+                return true;
+            }
+            if (d && empty) {
+                Throwable e = error;
+                if (e != null) {
+                    actual.onError(e);
+                }
+                else {
+                    actual.onComplete();
+                }
+                worker.dispose();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return s;
+            if (key == Attr.ACTUAL) return actual;
+            if (key == Attr.TERMINATED) return done && queue.isEmpty();
+            if (key == Attr.CANCELLED) return cancelled;
+            if (key == Attr.BUFFERED) return queue.size();
+            if (key == Attr.PREFETCH) return prefetch;
+            if (key == Attr.ERROR) return error;
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+            if (key == Attr.RUN_ON) return worker;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.ASYNC;
+            return null;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.cn.demo.schedulers;
 
+import com.cn.demo.schedulers.metrics.SchedulerInstrumentation;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.io.IOException;
 import java.time.Duration;
@@ -12,6 +17,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @Description 线程调度器
@@ -56,6 +62,14 @@ public class Demo11 {
 //        parallel();
         //自定义线程池
 //        customExecutorService();
+        //虚拟线程
+//        virtualThread();
+        //调度器指标
+//        instrumentedBoundedElastic();
+        //自适应线程上限
+//        adaptiveElastic();
+        //时间轮
+//        timerWheel();
     }
 
 
@@ -211,4 +225,113 @@ public class Demo11 {
         }).start();
         System.in.read();
     }
+
+    /**
+     * @Description: 虚拟线程调度器 {@link VirtualThreadScheduler}，每个任务一个新的虚拟线程，适合大量阻塞 I/O；
+     * maxConcurrency 限制同时执行的任务数，延迟/周期任务共用一个定时器线程
+     * @author Levi.Ding
+     * @date 2026/10/22 16:40
+     * @return : void
+     */
+    public static void virtualThread() throws IOException {
+        Scheduler scheduler = VirtualThreadScheduler.create("Levi-virtual", 100);
+
+        Flux.range(1, 10)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    TimeUnit.MILLISECONDS.sleep(100);
+                    return i;
+                }).subscribeOn(scheduler))
+                .subscribe((i) -> log.info("ThreadName : {} , Flux1 subscribe i : {}",Thread.currentThread(),i));
+
+        Flux.interval(Duration.ofMillis(500), scheduler)
+                .take(3)
+                .subscribe((i) -> log.info("ThreadName : {} , Flux2 subscribe i : {}",Thread.currentThread(),i));
+        System.in.read();
+        scheduler.dispose();
+    }
+
+    /**
+     * @Description: 通过 {@link SchedulerInstrumentation} 观察 boundedElastic 的 BoundedState 数量、排队任务、等待与执行耗时，
+     * 用于根据实际数据确定 maxThreads；装饰器需要在 Scheduler 创建 executor 之前安装
+     * @author Levi.Ding
+     * @date 2026/10/23 14:50
+     * @return : void
+     */
+    public static void instrumentedBoundedElastic() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SchedulerInstrumentation instrumentation = SchedulerInstrumentation.builder(registry)
+                .timingSampling(1)
+                .install();
+        Scheduler scheduler = Schedulers.newBoundedElastic(4, 1000, "Levi-instrumented");
+
+        Flux.range(1, 100)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                    return i;
+                }).subscribeOn(scheduler))
+                .blockLast();
+
+        for (Meter meter : registry.getMeters()) {
+            log.info("{} {} : {}", meter.getId().getName(), meter.getId().getTags(), meter.measure());
+        }
+        scheduler.dispose();
+        instrumentation.dispose();
+    }
+
+    /**
+     * @Description: 自适应弹性调度器 {@link AdaptiveElasticScheduler}，平均排队等待超过 targetWait 且扩容后吞吐仍在提升时增加线程，
+     * 扩容不再带来提升或线程空闲时减少线程；完整的负载模拟见 {@link com.cn.benchmark.schedulers.AdaptiveElasticSimulation}
+     * @author Levi.Ding
+     * @date 2026/10/23 17:20
+     * @return : void
+     */
+    public static void adaptiveElastic() {
+        AdaptiveElasticScheduler scheduler = AdaptiveElasticScheduler.builder("Levi-adaptive")
+                .threads(2, 64)
+                .step(2)
+                .targetWait(Duration.ofMillis(5))
+                .sampleInterval(Duration.ofMillis(200))
+                .onSample(s -> log.info("{}", s))
+                .build();
+
+        Flux.range(1, 2000)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    TimeUnit.MILLISECONDS.sleep(20);
+                    return i;
+                }).subscribeOn(scheduler), 256)
+                .blockLast();
+
+        log.info("cap : {}", scheduler.currentCap());
+        scheduler.dispose();
+    }
+
+    /**
+     * @Description: 时间轮调度器 {@link TimerWheelScheduler}，delayElements/timeout/Retry.backoff 通过参数指定 Scheduler 后，
+     * 定时器进入时间轮 (插入、取消 O(1))，到期后在 Schedulers.parallel() 上执行
+     * @author Levi.Ding
+     * @date 2026/10/24 16:00
+     * @return : void
+     */
+    public static void timerWheel() throws IOException {
+        TimerWheelScheduler scheduler = TimerWheelScheduler.create("Levi-wheel");
+
+        Flux.range(1, 10)
+                .delayElements(Duration.ofMillis(100), scheduler)
+                .timeout(Duration.ofMillis(500), scheduler)
+                .subscribe((i) -> log.info("ThreadName : {} , Flux1 subscribe i : {}",Thread.currentThread().getName(),i));
+
+        AtomicInteger attempts = new AtomicInteger();
+        Mono.fromCallable(() -> {
+                    if (attempts.incrementAndGet() < 3) {
+                        throw new IllegalStateException("attempt " + attempts.get());
+                    }
+                    return attempts.get();
+                })
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(100)).scheduler(scheduler))
+                .subscribe((i) -> log.info("ThreadName : {} , Mono subscribe attempts : {}",Thread.currentThread().getName(),i));
+
+        System.in.read();
+        log.info("outstanding timers : {}", scheduler.outstandingTimers());
+        scheduler.dispose();
+    }
 }
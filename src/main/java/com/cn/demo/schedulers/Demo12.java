@@ -7,6 +7,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @Description Flux publishOn
@@ -34,6 +35,12 @@ import java.io.IOException;
 public class Demo12 {
 
     public static void main(String[] args) throws IOException {
+        publishOn();
+        //按微批次唤醒
+//        batchPublishOn();
+    }
+
+    public static void publishOn() throws IOException {
         Flux.range(1, 2).map(i -> {
                     log.info("ThreadName:{} map1 , i:{}", Thread.currentThread().getName(), i);
                     return i * 2;
@@ -53,4 +60,22 @@ public class Demo12 {
 
         System.in.read();
     }
+
+    /**
+     * @Description: {@link BatchPublishOn} 累计 maxBatch 个元素或等待 window 后才唤醒消费线程一次，
+     * 日志中 next2 以批次为单位出现在 boundedElastic 线程上
+     * @author Levi.Ding
+     * @date 2026/10/24 11:30
+     * @return : void
+     */
+    public static void batchPublishOn() throws IOException {
+        Flux.interval(Duration.ofMillis(10))
+                .take(50)
+                .doOnNext(i -> log.info("ThreadName:{} next1 , i:{}", Thread.currentThread().getName(), i))
+                .transform(BatchPublishOn.publishOn(Schedulers.boundedElastic(), 8, Duration.ofMillis(50)))
+                .doOnNext(i -> log.info("ThreadName:{} next2 , i:{}", Thread.currentThread().getName(), i))
+                .subscribe();
+
+        System.in.read();
+    }
 }
@@ -0,0 +1,495 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Description 分层哈希时间轮
+ *
+ * ScheduledThreadPoolExecutor 的 DelayedWorkQueue 为加锁的二叉堆，插入/取消为 O(log n)，所有线程竞争同一把锁；
+ * 这里按 tick 把时间离散化，到期时间落在固定的槽位中
+ *
+ * 1、4 层: 第 0 层 256 个槽，每槽 1 个 tick；第 1~3 层各 64 个槽，每槽分别为 2^8、2^14、2^20 个 tick，总跨度 2^26 个 tick
+ *    (tick = 1ms 时约 18.6 小时)，超出跨度的先放在最高层，到期前重新分配
+ * 2、插入: 任意线程将 Timeout 放入 MPSC 队列，O(1)；tick 线程每个 tick 最多转移 MAX_TRANSFER_PER_TICK 个到槽位的双向链表中
+ * 3、取消: CAS 状态后放入取消队列，O(1)；tick 线程在下一个 tick 从链表中摘除，timeout() 这类"几乎都会被取消"的定时器不会堆积
+ * 4、推进: 第 0 层每个 tick 处理一个槽；第 0 层转完一圈时，把上一层当前槽中的 Timeout 按剩余时间重新分配到下层 (cascade)
+ *
+ * 到期任务直接在 tick 线程上执行，只适合做轻量的转交 (提交到其他线程)，由 {@link TimerWheelScheduler} 负责转交
+ *
+ * 链表、槽位只由 tick 线程读写，其他线程只接触两个队列和状态字段
+ * dispose 后 tick 线程退出前取消所有未到期的定时器，阻塞在 {@link Timeout#get()} 上的线程得到 CancellationException
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/24 14:00
+ * @Version V1.0
+ */
+final class HashedTimerWheel implements Disposable {
+
+    static final int WHEEL0_BITS = 8;
+
+    static final int WHEEL_BITS = 6;
+
+    static final int WHEEL0_MASK = (1 << WHEEL0_BITS) - 1;
+
+    static final int WHEEL_MASK = (1 << WHEEL_BITS) - 1;
+
+    static final int SHIFT1 = WHEEL0_BITS;
+
+    static final int SHIFT2 = SHIFT1 + WHEEL_BITS;
+
+    static final int SHIFT3 = SHIFT2 + WHEEL_BITS;
+
+    static final long SPAN = 1L << (SHIFT3 + WHEEL_BITS);
+
+    /**
+     * 每个 tick 最多转移的新 Timeout 数，避免持续大量插入时 tick 线程一直停在转移上
+     */
+    static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    final long tickNanos;
+
+    final long startNanos;
+
+    final Bucket[] wheel0 = buckets(1 << WHEEL0_BITS);
+
+    final Bucket[] wheel1 = buckets(1 << WHEEL_BITS);
+
+    final Bucket[] wheel2 = buckets(1 << WHEEL_BITS);
+
+    final Bucket[] wheel3 = buckets(1 << WHEEL_BITS);
+
+    final Queue<Timeout> pending = Queues.<Timeout>unboundedMultiproducer().get();
+
+    final Queue<Timeout> cancelled = Queues.<Timeout>unboundedMultiproducer().get();
+
+    final LongAdder outstanding = new LongAdder();
+
+    final Thread thread;
+
+    /**
+     * 已处理到的 tick，只由 tick 线程读写
+     */
+    long now;
+
+    volatile boolean shutdown;
+
+    HashedTimerWheel(String name, long tickNanos) {
+        if (tickNanos <= 0L) {
+            throw new IllegalArgumentException("tick > 0 required but it was " + tickNanos);
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this::loop, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    static Bucket[] buckets(int n) {
+        Bucket[] b = new Bucket[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = new Bucket();
+        }
+        return b;
+    }
+
+    /**
+     * @Description: 添加一个定时器，到期后在 tick 线程上执行 task
+     * @author Levi.Ding
+     * @date 2026/10/24 14:20
+     * @param task : 轻量任务
+     * @param delayNanos : 延迟
+     * @param periodNanos : 大于 0 时按固定频率重复执行，小于 0 时每个 tick 执行一次，0 为只执行一次
+     * @return : com.cn.demo.schedulers.HashedTimerWheel.Timeout
+     */
+    Timeout schedule(Runnable task, long delayNanos, long periodNanos) {
+        Objects.requireNonNull(task, "task");
+        if (shutdown) {
+            throw new RejectedExecutionException("timer wheel is shut down");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(0L, delayNanos);
+        long periodTicks = periodNanos == 0L ? 0L : Math.max(1L, (periodNanos + tickNanos - 1) / tickNanos);
+        Timeout t = new Timeout(this, task, (deadline + tickNanos - 1) / tickNanos, periodTicks);
+        outstanding.increment();
+        pending.offer(t);
+        //与 tick 线程退出前的 cancelAll 交错时，由这里取消
+        if (shutdown && t.cancel(false)) {
+            throw new RejectedExecutionException("timer wheel is shut down");
+        }
+        return t;
+    }
+
+    /**
+     * 未到期且未取消的定时器数量
+     */
+    long outstanding() {
+        return outstanding.sum();
+    }
+
+    void loop() {
+        try {
+            while (!shutdown) {
+                long wakeAt = startNanos + now * tickNanos;
+                long sleep;
+                while ((sleep = wakeAt - System.nanoTime()) > 0L) {
+                    LockSupport.parkNanos(this, sleep);
+                    if (shutdown) {
+                        return;
+                    }
+                }
+                tick();
+                now++;
+            }
+        }
+        finally {
+            cancelAll();
+        }
+    }
+
+    /**
+     * tick 线程退出前取消所有未到期的定时器
+     */
+    void cancelAll() {
+        Timeout t;
+        while ((t = pending.poll()) != null) {
+            t.cancel(false);
+        }
+        cancelAll(wheel0);
+        cancelAll(wheel1);
+        cancelAll(wheel2);
+        cancelAll(wheel3);
+        cancelled.clear();
+    }
+
+    static void cancelAll(Bucket[] wheel) {
+        for (Bucket b : wheel) {
+            Timeout t = b.detach();
+            while (t != null) {
+                Timeout next = t.next;
+                t.unlink();
+                t.cancel(false);
+                t = next;
+            }
+        }
+    }
+
+    void tick() {
+        long n = now;
+        if ((n & WHEEL0_MASK) == 0L) {
+            int i1 = (int) ((n >>> SHIFT1) & WHEEL_MASK);
+            if (i1 == 0) {
+                int i2 = (int) ((n >>> SHIFT2) & WHEEL_MASK);
+                if (i2 == 0) {
+                    cascade(wheel3[(int) ((n >>> SHIFT3) & WHEEL_MASK)]);
+                }
+                cascade(wheel2[i2]);
+            }
+            cascade(wheel1[i1]);
+        }
+        transferPending();
+        removeCancelled();
+        expire(wheel0[(int) (n & WHEEL0_MASK)]);
+    }
+
+    void transferPending() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout t = pending.poll();
+            if (t == null) {
+                return;
+            }
+            if (t.state == Timeout.WAITING) {
+                place(t);
+            }
+        }
+    }
+
+    void removeCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            Bucket b = t.bucket;
+            if (b != null) {
+                b.remove(t);
+            }
+        }
+    }
+
+    /**
+     * 按剩余 tick 数选择层，按到期 tick 的对应位选择槽；已过期的放入当前槽
+     */
+    void place(Timeout t) {
+        long e = t.deadline;
+        long delta = e - now;
+        if (delta < (1L << SHIFT1)) {
+            wheel0[(int) (Math.max(e, now) & WHEEL0_MASK)].add(t);
+        }
+        else if (delta < (1L << SHIFT2)) {
+            wheel1[(int) ((e >>> SHIFT1) & WHEEL_MASK)].add(t);
+        }
+        else if (delta < (1L << SHIFT3)) {
+            wheel2[(int) ((e >>> SHIFT2) & WHEEL_MASK)].add(t);
+        }
+        else {
+            if (delta >= SPAN) {
+                e = now + SPAN - 1;
+            }
+            wheel3[(int) ((e >>> SHIFT3) & WHEEL_MASK)].add(t);
+        }
+    }
+
+    void cascade(Bucket b) {
+        Timeout t = b.detach();
+        while (t != null) {
+            Timeout next = t.next;
+            t.unlink();
+            if (t.state == Timeout.WAITING) {
+                place(t);
+            }
+            t = next;
+        }
+    }
+
+    void expire(Bucket b) {
+        Timeout t = b.detach();
+        while (t != null) {
+            Timeout next = t.next;
+            t.unlink();
+            if (t.deadline > now) {
+                place(t);
+            }
+            else if (t.periodTicks != 0L) {
+                if (t.state == Timeout.WAITING) {
+                    run(t.task);
+                    //执行落后时跳过错过的周期，放到下一个 tick，避免放回正在处理的槽
+                    t.deadline = Math.max(t.deadline + t.periodTicks, now + 1);
+                    if (t.state == Timeout.WAITING) {
+                        place(t);
+                    }
+                }
+            }
+            else if (Timeout.STATE.compareAndSet(t, Timeout.WAITING, Timeout.EXPIRED)) {
+                outstanding.decrement();
+                run(t.task);
+                t.finish();
+            }
+            t = next;
+        }
+    }
+
+    static void run(Runnable task) {
+        try {
+            task.run();
+        }
+        catch (Throwable e) {
+            Operators.onErrorDropped(e, Context.empty());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        shutdown = true;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return shutdown;
+    }
+
+    /**
+     * 槽位中的双向链表，只由 tick 线程读写
+     */
+    static final class Bucket {
+
+        Timeout head;
+
+        Timeout tail;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            }
+            else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void remove(Timeout t) {
+            Timeout p = t.prev;
+            Timeout n = t.next;
+            if (p == null) {
+                head = n;
+            }
+            else {
+                p.next = n;
+            }
+            if (n == null) {
+                tail = p;
+            }
+            else {
+                n.prev = p;
+            }
+            t.unlink();
+        }
+
+        /**
+         * 取出整个链表，调用方遍历时需要对每个节点 unlink
+         */
+        Timeout detach() {
+            Timeout h = head;
+            head = null;
+            tail = null;
+            return h;
+        }
+    }
+
+    /**
+     * 时间轮中的一个定时器，cancel 可以在任意线程调用
+     *
+     * get: 只执行一次的定时器在任务执行完后返回 null (任务的异常交给 onErrorDropped，不会从 get 抛出)，
+     * 取消后抛出 CancellationException；周期定时器只会以取消结束
+     * 等待方与 {@link #finish()} 通过 finished/waiting 两个 volatile 字段握手，没有等待方时 finish 不需要加锁
+     */
+    static final class Timeout implements Future<Object> {
+
+        static final int WAITING = 0;
+
+        static final int CANCELLED = 1;
+
+        static final int EXPIRED = 2;
+
+        static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        final HashedTimerWheel wheel;
+
+        final Runnable task;
+
+        final long periodTicks;
+
+        /**
+         * 到期 tick，周期任务每次执行后由 tick 线程更新
+         */
+        long deadline;
+
+        Bucket bucket;
+
+        Timeout prev;
+
+        Timeout next;
+
+        volatile int state;
+
+        /**
+         * 任务已执行完或已取消
+         */
+        volatile boolean finished;
+
+        /**
+         * 有线程在 get 中等待
+         */
+        volatile boolean waiting;
+
+        Timeout(HashedTimerWheel wheel, Runnable task, long deadline, long periodTicks) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+            this.periodTicks = periodTicks;
+        }
+
+        void unlink() {
+            bucket = null;
+            prev = null;
+            next = null;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                wheel.outstanding.decrement();
+                wheel.cancelled.offer(this);
+                finish();
+                return true;
+            }
+            return false;
+        }
+
+        void finish() {
+            finished = true;
+            if (waiting) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state != WAITING;
+        }
+
+        @Override
+        @Nullable
+        public Object get() throws InterruptedException, ExecutionException {
+            if (!finished) {
+                synchronized (this) {
+                    waiting = true;
+                    while (!finished) {
+                        wait();
+                    }
+                }
+            }
+            return report();
+        }
+
+        @Override
+        @Nullable
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!finished) {
+                long deadline = System.nanoTime() + unit.toNanos(timeout);
+                synchronized (this) {
+                    waiting = true;
+                    while (!finished) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0L) {
+                            throw new TimeoutException();
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            }
+            return report();
+        }
+
+        @Nullable
+        Object report() {
+            if (state == CANCELLED) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+    }
+}
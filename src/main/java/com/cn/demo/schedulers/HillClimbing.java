@@ -0,0 +1,110 @@
+package com.cn.demo.schedulers;
+
+/**
+ * @Description {@link AdaptiveElasticScheduler} 的线程上限调节策略
+ *
+ * 参考 .NET 线程池的 hill climbing: 每个采样周期比较本周期与上周期的吞吐，判断上一次调整是否有效
+ * 1、拥塞(平均等待超过 targetWait 且有排队任务)时按 step 扩容，吞吐持续提升就继续扩容
+ * 2、扩容后吞吐提升不足 minImprovement 说明线程已经不是瓶颈(下游饱和/CPU 打满)，回退这一步并继续向下试探:
+ *    阻塞在下游的线程同样是"活跃"的，只看空闲线程无法发现多余的线程
+ * 3、不拥塞且活跃线程明显少于上限时按 step 缩容
+ * 4、缩容后仍拥塞并且吞吐下降超过 minImprovement 时恢复这一步，并冷却 COOLDOWN 个周期后再重新试探
+ *
+ * .NET 的实现通过正弦扰动和傅里叶分析从噪声中提取吞吐对线程数的梯度，这里只做相邻两个周期的比较，
+ * 到达率本身波动较大时需要增大 sampleInterval 来平滑
+ *
+ * 非线程安全，只由定时器线程调用
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/23 16:00
+ * @Version V1.0
+ */
+final class HillClimbing {
+
+    static final int COOLDOWN = 4;
+
+    final int min;
+
+    final int max;
+
+    final int step;
+
+    final long targetWaitNanos;
+
+    final double minImprovement;
+
+    /**
+     * 1 上一次为扩容，-1 上一次为缩容，0 保持
+     */
+    int direction;
+
+    double lastThroughput;
+
+    int cooldown;
+
+    HillClimbing(int min, int max, int step, long targetWaitNanos, double minImprovement) {
+        this.min = min;
+        this.max = max;
+        this.step = step;
+        this.targetWaitNanos = targetWaitNanos;
+        this.minImprovement = minImprovement;
+    }
+
+    /**
+     * @Description: 根据本周期的观测值计算新的线程上限
+     * @author Levi.Ding
+     * @date 2026/10/23 16:10
+     * @param cap : 当前上限
+     * @param throughput : 本周期每秒完成的任务数
+     * @param avgWaitNanos : 本周期开始执行的任务的平均等待时间
+     * @param queued : 当前排队任务数
+     * @param active : 当前执行中的任务数
+     * @return : int
+     */
+    int update(int cap, double throughput, double avgWaitNanos, int queued, int active) {
+        boolean congested = avgWaitNanos > targetWaitNanos && queued > 0;
+        boolean idle = !congested && active <= cap - step;
+        int next = cap;
+        boolean settle = false;
+        if (cooldown > 0) {
+            cooldown--;
+        }
+        if (direction > 0) {
+            if (throughput < lastThroughput * (1.0 + minImprovement)) {
+                //扩容没有带来吞吐提升，回退并继续向下试探
+                next = cap - step;
+            }
+            else if (congested) {
+                next = cap + step;
+            }
+        }
+        else if (direction < 0) {
+            if (congested && throughput < lastThroughput * (1.0 - minImprovement)) {
+                //缩容导致吞吐下降，恢复并冷却
+                next = cap + step;
+                settle = true;
+            }
+            else if (congested || idle) {
+                next = cap - step;
+            }
+        }
+        else if (cooldown == 0) {
+            if (congested) {
+                next = cap + step;
+            }
+            else if (idle) {
+                next = cap - step;
+            }
+        }
+        next = Math.max(min, Math.min(max, next));
+        if (settle) {
+            cooldown = COOLDOWN;
+            direction = 0;
+        }
+        else {
+            direction = Integer.signum(next - cap);
+        }
+        lastThroughput = throughput;
+        return next;
+    }
+}
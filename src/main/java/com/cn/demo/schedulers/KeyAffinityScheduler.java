@@ -0,0 +1,628 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @Description 按路由 key 固定线程的 Scheduler
+ *
+ * {@link com.cn.demo.advanced.Demo4#groupedFlux()} 这类 groupBy 管道中，每个分组在 boundedElastic 的不同线程之间切换，
+ * 缓存局部性差，按 key 维护的状态也必须加锁；这里由 N 个单线程 lane 组成，同一个 key 的所有任务都在同一个 lane 上执行，
+ * 按 key 的状态可以是普通字段
+ *
+ * 1、路由: {@link #laneOf(Object)} 先查 {@link #pin(Object, int)} 的固定映射，否则按 key 的 hash 取模
+ * 2、用法: groupBy(...).flatMap(g -> g.publishOn(scheduler.forKey(g.key()))...)，或 {@link #createWorker(Object)}；
+ *    不带 key 的 schedule/createWorker 按轮询选择 lane
+ * 3、指标: {@link #laneMetrics()} 每个 lane 的排队任务数与已执行数，{@link #keyLoads()} 每个 key 在上一个区间内向每个 lane 提交的任务数
+ * 4、热点重平衡: {@link #startRebalancing(Duration, Rebalancer)} 周期性回调 {@link Rebalancer}，由其决定把哪些 key pin 到哪个 lane
+ * 5、回收: 连续 EVICT_IDLE_INTERVALS 次 {@link #keyLoads()} 都没有提交任务的 key 从统计中移除，同时移除它的 pin；
+ *    仍持有该 key 的视图/Worker 再次提交任务时重新登记；统计的 key 数不超过 MAX_TRACKED_KEYS，
+ *    没有调用 keyLoads (未启动重平衡) 时高基数的 groupBy 不会让统计无限增长，超出后新的 key 不计入 keyLoads
+ *
+ * 注) pin 只影响之后创建的 Worker 与 {@link #forKey(Object)} 视图，已经创建的仍在原 lane 上执行，
+ *     保证同一个 Worker(视图) 的任务不会同时在两个线程上运行；
+ *     对 groupBy 来说，新分组(或分组重新订阅)才会使用新的 lane，迁移 key 的状态需要在这个时间点交接
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/23 10:00
+ * @Version V1.0
+ */
+public final class KeyAffinityScheduler implements Scheduler, Scannable {
+
+    /**
+     * 连续多少个统计区间没有任务后移除 key
+     */
+    static final int EVICT_IDLE_INTERVALS = 3;
+
+    /**
+     * 最多统计多少个 key
+     */
+    static final int MAX_TRACKED_KEYS = 1 << 16;
+
+    final String name;
+
+    final Lane[] lanes;
+
+    final Map<Object, Integer> pinned = new ConcurrentHashMap<>();
+
+    final Map<Object, KeyLoad> loads = new ConcurrentHashMap<>();
+
+    final AtomicInteger roundRobin = new AtomicInteger();
+
+    volatile boolean disposed;
+
+    KeyAffinityScheduler(String name, int laneCount) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("lanes > 0 required but it was " + laneCount);
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(this, i, name + "-" + i);
+        }
+    }
+
+    public static KeyAffinityScheduler create(String name) {
+        return new KeyAffinityScheduler(name, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static KeyAffinityScheduler create(String name, int lanes) {
+        return new KeyAffinityScheduler(name, lanes);
+    }
+
+    public int laneOf(Object key) {
+        Integer lane = pinned.get(key);
+        if (lane != null) {
+            return lane;
+        }
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return (h & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * @Description: 把 key 固定到 lane，只影响之后创建的 Worker 与 forKey 视图
+     * @author Levi.Ding
+     * @date 2026/10/23 10:10
+     * @param key :
+     * @param lane :
+     * @return : void
+     */
+    public void pin(Object key, int lane) {
+        Objects.requireNonNull(key, "key");
+        if (lane < 0 || lane >= lanes.length) {
+            throw new IllegalArgumentException("lane must be in [0, " + lanes.length + ") but it was " + lane);
+        }
+        pinned.put(key, lane);
+    }
+
+    public void unpin(Object key) {
+        pinned.remove(key);
+    }
+
+    /**
+     * @Description: 绑定 key 的 Scheduler 视图，创建时按当前路由选择 lane，直接提交的任务与 createWorker 都在这个 lane 上
+     * @author Levi.Ding
+     * @date 2026/10/23 10:12
+     * @param key :
+     * @return : reactor.core.scheduler.Scheduler
+     */
+    public Scheduler forKey(Object key) {
+        KeyLoad load = loadOf(key);
+        return new KeyedScheduler(this, key, lanes[laneOf(key)], load);
+    }
+
+    public Worker createWorker(Object key) {
+        KeyLoad load = loadOf(key);
+        return new KeyedWorker(lanes[laneOf(key)], load);
+    }
+
+    /**
+     * 统计的 key 已达到 MAX_TRACKED_KEYS 时返回 null，调用方不再记录该 key
+     */
+    @Nullable
+    KeyLoad loadOf(Object key) {
+        Objects.requireNonNull(key, "key");
+        KeyLoad load = loads.get(key);
+        if (load != null) {
+            return load;
+        }
+        if (loads.size() >= MAX_TRACKED_KEYS) {
+            return null;
+        }
+        return loads.computeIfAbsent(key, k -> new KeyLoad(this, k));
+    }
+
+    Lane nextLane() {
+        return lanes[(roundRobin.getAndIncrement() & Integer.MAX_VALUE) % lanes.length];
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        return nextLane().schedule(task, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        return nextLane().schedule(task, delay, unit);
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Lane lane = nextLane();
+        PeriodicTask p = new PeriodicTask(task, null, lane::submit);
+        p.future = lane.periodically(p, initialDelay, period, unit);
+        return p;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new KeyedWorker(nextLane(), null);
+    }
+
+    /**
+     * @Description: 每个 lane 当前的排队任务数与累计执行数
+     * @author Levi.Ding
+     * @date 2026/10/23 10:20
+     * @return : java.util.List<com.cn.demo.schedulers.KeyAffinityScheduler.LaneMetrics>
+     */
+    public List<LaneMetrics> laneMetrics() {
+        List<LaneMetrics> result = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            result.add(new LaneMetrics(lane.index, lane.queued.get(), lane.executed.get()));
+        }
+        return result;
+    }
+
+    /**
+     * @Description: 每个 key 在上次调用之后向每个 lane 提交的任务数，按任务数降序，读取后清零；
+     * pin 之前创建的 Worker 仍在原 lane 上，同一个 key 可能对应多个 lane；同时回收长期空闲的 key
+     * @author Levi.Ding
+     * @date 2026/10/23 10:22
+     * @return : java.util.List<com.cn.demo.schedulers.KeyAffinityScheduler.KeyLoadSnapshot>
+     */
+    public List<KeyLoadSnapshot> keyLoads() {
+        List<KeyLoadSnapshot> result = new ArrayList<>();
+        for (KeyLoad load : loads.values()) {
+            boolean idle = true;
+            for (int i = 0; i < lanes.length; i++) {
+                long n = load.scheduled.getAndSet(i, 0L);
+                if (n != 0L) {
+                    idle = false;
+                    result.add(new KeyLoadSnapshot(load.key, i, n));
+                }
+            }
+            if (!idle) {
+                load.idleIntervals = 0;
+            }
+            else if (++load.idleIntervals >= EVICT_IDLE_INTERVALS) {
+                evict(load);
+            }
+        }
+        result.sort(Comparator.comparingLong(KeyLoadSnapshot::scheduled).reversed());
+        return result;
+    }
+
+    void evict(KeyLoad load) {
+        load.evicted = true;
+        if (loads.remove(load.key, load)) {
+            pinned.remove(load.key);
+        }
+    }
+
+    public Disposable startRebalancing(Duration period, Rebalancer rebalancer) {
+        Objects.requireNonNull(rebalancer, "rebalancer");
+        long nanos = period.toNanos();
+        return Schedulers.parallel().schedulePeriodically(() -> rebalancer.rebalance(this, laneMetrics(), keyLoads()),
+                nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        for (Lane lane : lanes) {
+            lane.executor.shutdownNow();
+        }
+        loads.clear();
+        pinned.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) return disposed;
+        if (key == Attr.NAME) return name;
+        if (key == Attr.CAPACITY) return lanes.length;
+        if (key == Attr.BUFFERED) {
+            int n = 0;
+            for (Lane lane : lanes) {
+                n += lane.queued.get();
+            }
+            return n;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyAffinityScheduler(\"" + name + "\", lanes=" + lanes.length + ")";
+    }
+
+    /**
+     * 热点重平衡回调，在 Schedulers.parallel() 上周期执行，可以调用 {@link #pin(Object, int)} / {@link #unpin(Object)}
+     */
+    @FunctionalInterface
+    public interface Rebalancer {
+
+        void rebalance(KeyAffinityScheduler scheduler, List<LaneMetrics> lanes, List<KeyLoadSnapshot> keys);
+
+        /**
+         * 最忙 lane 的排队任务数超过最闲 lane 的 ratio 倍(且不少于 minQueued)时，把该 lane 上最热的 key 固定到最闲的 lane
+         */
+        static Rebalancer moveHottestKey(double ratio, int minQueued) {
+            return (scheduler, lanes, keys) -> {
+                LaneMetrics busiest = null;
+                LaneMetrics idlest = null;
+                for (LaneMetrics m : lanes) {
+                    if (busiest == null || m.queued > busiest.queued) {
+                        busiest = m;
+                    }
+                    if (idlest == null || m.queued < idlest.queued) {
+                        idlest = m;
+                    }
+                }
+                if (busiest == null || busiest == idlest || busiest.queued < minQueued
+                        || busiest.queued < ratio * Math.max(1, idlest.queued)) {
+                    return;
+                }
+                for (KeyLoadSnapshot k : keys) {
+                    if (k.lane == busiest.lane) {
+                        scheduler.pin(k.key, idlest.lane);
+                        return;
+                    }
+                }
+            };
+        }
+    }
+
+    public static final class LaneMetrics {
+
+        final int lane;
+
+        final int queued;
+
+        final long executed;
+
+        LaneMetrics(int lane, int queued, long executed) {
+            this.lane = lane;
+            this.queued = queued;
+            this.executed = executed;
+        }
+
+        public int lane() {
+            return lane;
+        }
+
+        public int queued() {
+            return queued;
+        }
+
+        public long executed() {
+            return executed;
+        }
+
+        @Override
+        public String toString() {
+            return "LaneMetrics{lane=" + lane + ", queued=" + queued + ", executed=" + executed + '}';
+        }
+    }
+
+    public static final class KeyLoadSnapshot {
+
+        final Object key;
+
+        final int lane;
+
+        final long scheduled;
+
+        KeyLoadSnapshot(Object key, int lane, long scheduled) {
+            this.key = key;
+            this.lane = lane;
+            this.scheduled = scheduled;
+        }
+
+        public Object key() {
+            return key;
+        }
+
+        public int lane() {
+            return lane;
+        }
+
+        public long scheduled() {
+            return scheduled;
+        }
+
+        @Override
+        public String toString() {
+            return "KeyLoad{key=" + key + ", lane=" + lane + ", scheduled=" + scheduled + '}';
+        }
+    }
+
+    /**
+     * 一个 key 向每个 lane 提交的任务数，按 lane 序号索引
+     */
+    static final class KeyLoad {
+
+        final KeyAffinityScheduler parent;
+
+        final Object key;
+
+        final AtomicLongArray scheduled;
+
+        /**
+         * 连续没有任务的统计区间数，只在 keyLoads 中读写
+         */
+        int idleIntervals;
+
+        volatile boolean evicted;
+
+        KeyLoad(KeyAffinityScheduler parent, Object key) {
+            this.parent = parent;
+            this.key = key;
+            this.scheduled = new AtomicLongArray(parent.lanes.length);
+        }
+
+        /**
+         * @Description: 记录一个提交到 lane 的任务，已被回收时重新登记 (统计已满时继续记录在自身上，之后再尝试)
+         * @author Levi.Ding
+         * @date 2026/10/23 10:25
+         * @param lane : lane 序号
+         * @return : com.cn.demo.schedulers.KeyAffinityScheduler.KeyLoad 调用方之后应持有的 KeyLoad
+         */
+        KeyLoad record(int lane) {
+            KeyLoad load = this;
+            if (evicted) {
+                KeyLoad registered = parent.loadOf(key);
+                if (registered != null) {
+                    load = registered;
+                }
+            }
+            load.scheduled.incrementAndGet(lane);
+            return load;
+        }
+    }
+
+    /**
+     * 单线程 lane，queued 为排队中的任务数: 直接提交的任务在 {@link #submit(Runnable)} 时加一、开始执行时减一，
+     * Worker 的任务在进入 Worker 队列时加一、出队时减一 (Worker 的 drain 本身不计数)；executed 只由 lane 线程写入
+     */
+    static final class Lane implements TaskDispatcher, Scannable {
+
+        final KeyAffinityScheduler parent;
+
+        final int index;
+
+        final ScheduledThreadPoolExecutor executor;
+
+        final AtomicInteger queued = new AtomicInteger();
+
+        final AtomicLong executed = new AtomicLong();
+
+        Lane(KeyAffinityScheduler parent, int index, String threadName) {
+            this.parent = parent;
+            this.index = index;
+            this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+            this.executor.setRemoveOnCancelPolicy(true);
+        }
+
+        Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            ScheduledTask t = new ScheduledTask(task, null);
+            if (delay <= 0L) {
+                submit(t);
+            }
+            else {
+                t.future = delay(() -> {
+                    if (!t.isDisposed()) {
+                        submit(t);
+                    }
+                }, delay, unit);
+            }
+            return t;
+        }
+
+        /**
+         * 提交一个计入 queued/executed 的任务
+         */
+        void submit(Runnable task) {
+            queued.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    queued.decrementAndGet();
+                    task.run();
+                    executed.lazySet(executed.get() + 1);
+                });
+            }
+            catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                throw Exceptions.failWithRejected(e);
+            }
+        }
+
+        /**
+         * Worker 的 drain，任务由 {@link KeyedWorker} 单独计数
+         */
+        @Override
+        public void execute(Runnable task) {
+            try {
+                executor.execute(task);
+            }
+            catch (RejectedExecutionException e) {
+                throw Exceptions.failWithRejected(e);
+            }
+        }
+
+        @Override
+        public Future<?> delay(Runnable task, long delay, TimeUnit unit) {
+            try {
+                return executor.schedule(task, delay, unit);
+            }
+            catch (RejectedExecutionException e) {
+                throw Exceptions.failWithRejected(e);
+            }
+        }
+
+        @Override
+        public Future<?> periodically(PeriodicTask task, long initialDelay, long period, TimeUnit unit) {
+            return PeriodicTask.schedule(executor, task, initialDelay, period, unit);
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return parent;
+            if (key == Attr.NAME) return parent.name + "-" + index;
+            if (key == Attr.BUFFERED) return queued.get();
+            return null;
+        }
+    }
+
+    /**
+     * 固定在一个 lane 上的 Worker，lane 为单线程，SerialWorker 的 drain 不需要让出；
+     * 任务按创建时的 lane 计入 key 的负载与 lane 的排队数
+     */
+    static final class KeyedWorker extends SerialWorker {
+
+        final Lane lane;
+
+        @Nullable
+        KeyLoad load;
+
+        KeyedWorker(Lane lane, @Nullable KeyLoad load) {
+            super(lane, lane, Integer.MAX_VALUE);
+            this.lane = lane;
+            this.load = load;
+        }
+
+        @Override
+        void enqueued() {
+            KeyLoad l = load;
+            if (l != null) {
+                load = l.record(lane.index);
+            }
+            lane.queued.incrementAndGet();
+        }
+
+        @Override
+        void dequeued(boolean dropped) {
+            lane.queued.decrementAndGet();
+            if (!dropped) {
+                lane.executed.lazySet(lane.executed.get() + 1);
+            }
+        }
+    }
+
+    static final class KeyedScheduler implements Scheduler, Scannable {
+
+        final KeyAffinityScheduler parent;
+
+        final Object key;
+
+        /**
+         * 创建视图时路由到的 lane，之后的 pin 不影响这个视图
+         */
+        final Lane lane;
+
+        @Nullable
+        KeyLoad load;
+
+        KeyedScheduler(KeyAffinityScheduler parent, Object key, Lane lane, @Nullable KeyLoad load) {
+            this.parent = parent;
+            this.key = key;
+            this.lane = lane;
+            this.load = load;
+        }
+
+        void record() {
+            KeyLoad l = load;
+            if (l != null) {
+                load = l.record(lane.index);
+            }
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            record();
+            return lane.schedule(task, 0L, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            record();
+            return lane.schedule(task, delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            PeriodicTask p = new PeriodicTask(task, null, t -> {
+                record();
+                lane.submit(t);
+            });
+            p.future = lane.periodically(p, initialDelay, period, unit);
+            return p;
+        }
+
+        @Override
+        public Worker createWorker() {
+            return new KeyedWorker(lane, load);
+        }
+
+        /**
+         * 视图不持有资源，由 {@link KeyAffinityScheduler#dispose()} 统一释放
+         */
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return parent.isDisposed();
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return parent;
+            if (key == Attr.NAME) return parent.name + "[" + this.key + "]";
+            return null;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * @Description 自定义 Scheduler 共用的周期任务
+ *
+ * 定时器到期时通过 dispatch 提交一次执行，上一次未结束时跳过，不会重叠执行；执行异常时取消后续调度
+ *
+ * period 小于等于 0 时 Reactor 的语义是上一次结束后立即再次执行 (见 Schedulers 的 InstantPeriodicWorkerTask)，
+ * 由 {@link #schedule(ScheduledExecutorService, PeriodicTask, long, long, TimeUnit)} 只安排第一次，之后每次结束时重新 dispatch，
+ * 不经过定时器
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 17:05
+ * @Version V1.0
+ */
+class PeriodicTask implements Runnable, Disposable {
+
+    final Runnable task;
+
+    @Nullable
+    final Disposable.Composite parent;
+
+    final Consumer<ScheduledTask> dispatch;
+
+    final AtomicBoolean inFlight = new AtomicBoolean();
+
+    @Nullable
+    volatile Future<?> future;
+
+    @Nullable
+    volatile ScheduledTask current;
+
+    volatile boolean disposed;
+
+    /**
+     * 每次结束后立即再次执行
+     */
+    volatile boolean instant;
+
+    PeriodicTask(Runnable task, @Nullable Disposable.Composite parent, Consumer<ScheduledTask> dispatch) {
+        this.task = Objects.requireNonNull(task, "task");
+        this.parent = parent;
+        this.dispatch = dispatch;
+    }
+
+    @Override
+    public void run() {
+        if (disposed || !inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        ScheduledTask run = new ScheduledTask(this::runOnce, null);
+        current = run;
+        try {
+            dispatch.accept(run);
+        }
+        catch (RejectedExecutionException e) {
+            inFlight.set(false);
+            Operators.onErrorDropped(e, Context.empty());
+        }
+    }
+
+    void runOnce() {
+        try {
+            task.run();
+        }
+        catch (Throwable e) {
+            dispose();
+            Operators.onErrorDropped(e, Context.empty());
+        }
+        finally {
+            inFlight.set(false);
+        }
+        if (instant && !disposed) {
+            run();
+        }
+    }
+
+    /**
+     * @Description: 在 timer 上安排周期任务，period 大于 0 时按固定频率，否则 initialDelay 后执行一次，之后每次结束后立即再次执行
+     * @author Levi.Ding
+     * @date 2026/10/22 17:08
+     * @param timer : 只负责到期转交的定时器
+     * @param task :
+     * @param initialDelay :
+     * @param period :
+     * @param unit : initialDelay 与 period 的单位
+     * @return : java.util.concurrent.Future<?>
+     */
+    static Future<?> schedule(ScheduledExecutorService timer, PeriodicTask task, long initialDelay, long period, TimeUnit unit) {
+        try {
+            if (period <= 0L) {
+                task.instant = true;
+                return timer.schedule(task, initialDelay, unit);
+            }
+            return timer.scheduleAtFixedRate(task, initialDelay, period, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        Future<?> f = future;
+        if (f != null) {
+            f.cancel(false);
+        }
+        ScheduledTask c = current;
+        if (c != null) {
+            c.dispose();
+        }
+        if (parent != null) {
+            parent.remove(this);
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
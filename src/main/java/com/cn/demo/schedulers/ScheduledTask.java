@@ -0,0 +1,115 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Description 自定义 Scheduler 共用的可取消任务
+ *
+ * 状态: null 等待执行，Thread 执行中，DONE 已结束，CANCELLED 已取消；取消执行中的任务时中断执行线程，
+ * 延迟任务取消时同时取消定时器中的 future
+ *
+ * 中断与执行结束的握手 (参考 Reactor 的 WorkerTask): 取消方先 CAS 为 INTERRUPTING，interrupt() 返回后再置为 CANCELLED；
+ * 执行线程结束时看到 INTERRUPTING 就等待，直到中断已经送达再清除中断标记，保证中断不会落到同一线程上的下一个任务
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 17:00
+ * @Version V1.0
+ */
+class ScheduledTask extends AtomicReference<Object> implements Runnable, Disposable {
+
+    static final Object DONE = new Object();
+
+    static final Object CANCELLED = new Object();
+
+    static final Object INTERRUPTING = new Object();
+
+    final Runnable task;
+
+    @Nullable
+    final Disposable.Composite parent;
+
+    @Nullable
+    volatile Future<?> future;
+
+    ScheduledTask(Runnable task, @Nullable Disposable.Composite parent) {
+        this.task = Objects.requireNonNull(task, "task");
+        this.parent = parent;
+    }
+
+    @Override
+    public void run() {
+        Thread current = Thread.currentThread();
+        if (!compareAndSet(null, current)) {
+            return;
+        }
+        try {
+            task.run();
+        }
+        catch (Throwable e) {
+            Operators.onErrorDropped(e, Context.empty());
+        }
+        finally {
+            finish(current);
+            if (parent != null) {
+                parent.remove(this);
+            }
+        }
+    }
+
+    void finish(Thread current) {
+        for (;;) {
+            Object s = get();
+            if (s == current) {
+                if (compareAndSet(current, DONE)) {
+                    return;
+                }
+            }
+            else if (s == INTERRUPTING) {
+                Thread.yield();
+            }
+            else {
+                //执行中被取消，中断已经送达，清除中断标记，避免影响同一线程上的下一个任务
+                Thread.interrupted();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (;;) {
+            Object s = get();
+            if (s == DONE || s == CANCELLED || s == INTERRUPTING) {
+                return;
+            }
+            boolean running = s instanceof Thread;
+            if (compareAndSet(s, running ? INTERRUPTING : CANCELLED)) {
+                Future<?> f = future;
+                if (f != null) {
+                    f.cancel(false);
+                }
+                if (running) {
+                    ((Thread) s).interrupt();
+                    set(CANCELLED);
+                }
+                if (parent != null) {
+                    parent.remove(this);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        Object s = get();
+        return s == DONE || s == CANCELLED || s == INTERRUPTING;
+    }
+}
@@ -0,0 +1,197 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Description 串行执行的 Worker
+ *
+ * 任务进入 Worker 自己的队列，同一时刻只有一个 drain 在 {@link TaskDispatcher} 上执行，保证 Reactor 对 Worker 的顺序要求；
+ * drain 连续执行 batchSize 个任务后重新提交自己并返回，让出线程给其他 Worker，之后可能由其他线程继续执行
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 17:15
+ * @Version V1.0
+ */
+class SerialWorker implements Scheduler.Worker, Runnable, Scannable {
+
+    final Scannable parent;
+
+    final TaskDispatcher dispatcher;
+
+    final int batchSize;
+
+    final Disposable.Composite tasks = Disposables.composite();
+
+    final Queue<ScheduledTask> queue = new ConcurrentLinkedQueue<>();
+
+    final AtomicInteger wip = new AtomicInteger();
+
+    SerialWorker(Scannable parent, TaskDispatcher dispatcher, int batchSize) {
+        this.parent = parent;
+        this.dispatcher = dispatcher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        ScheduledTask t = new ScheduledTask(task, tasks);
+        if (!tasks.add(t)) {
+            throw Exceptions.failWithRejected();
+        }
+        enqueue(t);
+        return t;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0L) {
+            return schedule(task);
+        }
+        ScheduledTask t = new ScheduledTask(task, tasks);
+        if (!tasks.add(t)) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            t.future = dispatcher.delay(() -> enqueueOrDrop(t), delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            tasks.remove(t);
+            throw e;
+        }
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask p = new PeriodicTask(task, tasks, this::enqueue);
+        if (!tasks.add(p)) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            p.future = dispatcher.periodically(p, initialDelay, period, unit);
+        }
+        catch (RejectedExecutionException e) {
+            tasks.remove(p);
+            throw e;
+        }
+        return p;
+    }
+
+    void enqueue(ScheduledTask t) {
+        if (tasks.isDisposed()) {
+            throw Exceptions.failWithRejected();
+        }
+        enqueued();
+        queue.offer(t);
+        if (wip.getAndIncrement() == 0) {
+            dispatchDrain(t);
+        }
+    }
+
+    /**
+     * 任务入队前调用，子类可以统计排队的任务数
+     */
+    void enqueued() {
+    }
+
+    /**
+     * 任务出队后调用，dropped 为 true 表示 Worker 已释放，任务不会执行
+     */
+    void dequeued(boolean dropped) {
+    }
+
+    void clearQueue() {
+        while (queue.poll() != null) {
+            dequeued(true);
+        }
+    }
+
+    void enqueueOrDrop(ScheduledTask t) {
+        if (t.isDisposed()) {
+            return;
+        }
+        try {
+            enqueue(t);
+        }
+        catch (RejectedExecutionException e) {
+            t.dispose();
+            Operators.onErrorDropped(e, Context.empty());
+        }
+    }
+
+    void dispatchDrain(@Nullable ScheduledTask trigger) {
+        try {
+            dispatcher.execute(this);
+        }
+        catch (RejectedExecutionException e) {
+            clearQueue();
+            wip.set(0);
+            if (trigger != null) {
+                trigger.dispose();
+                throw e;
+            }
+            Operators.onErrorDropped(e, Context.empty());
+        }
+    }
+
+    /**
+     * 串行执行队列中的任务，重新提交后从 missed = 1 开始，多出的计数只会多循环一次
+     */
+    @Override
+    public void run() {
+        int missed = 1;
+        int n = 0;
+        for (;;) {
+            ScheduledTask t;
+            while ((t = queue.poll()) != null) {
+                if (tasks.isDisposed()) {
+                    dequeued(true);
+                    clearQueue();
+                    return;
+                }
+                dequeued(false);
+                t.run();
+                if (++n >= batchSize && !queue.isEmpty()) {
+                    dispatchDrain(null);
+                    return;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        tasks.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return tasks.isDisposed();
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+        if (key == Attr.PARENT) return parent;
+        if (key == Attr.BUFFERED) return queue.size();
+        return null;
+    }
+}
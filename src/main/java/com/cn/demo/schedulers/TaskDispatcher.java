@@ -0,0 +1,26 @@
+package com.cn.demo.schedulers;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description {@link SerialWorker} 依赖的执行能力，由各个自定义 Scheduler 实现
+ *
+ * 所有方法在无法接收任务时抛出 {@link RejectedExecutionException}
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 17:10
+ * @Version V1.0
+ */
+interface TaskDispatcher {
+
+    void execute(Runnable task);
+
+    Future<?> delay(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * period 小于等于 0 时语义为每次结束后立即再次执行，见 {@link PeriodicTask}
+     */
+    Future<?> periodically(PeriodicTask task, long initialDelay, long period, TimeUnit unit);
+}
@@ -0,0 +1,175 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 基于 {@link HashedTimerWheel} 的 Scheduler，用于大量定时器的场景
+ *
+ * delayElements/timeout/Retry.backoff 默认使用 Schedulers.parallel()，每个元素/每次订阅都向 ScheduledThreadPoolExecutor 的
+ * 二叉堆插入一个任务 (timeout 几乎每个都会被取消)，定时器达到百万级时堆操作与锁竞争成为瓶颈
+ *
+ * 1、延迟/周期任务进入时间轮，插入与取消均为 O(1)，到期精度为一个 tick (默认 1ms)，不会提前执行
+ * 2、到期后转交给 executor (默认 Schedulers.parallel()) 执行，时间轮线程只做转交
+ * 3、Worker 为 {@link SerialWorker}，在共享的 executor 上每执行 DEFAULT_BATCH_SIZE 个任务让出一次
+ * 4、dispose 只停止时间轮，不释放 executor，未到期的定时器被取消，不再执行
+ *
+ * 注) tick 线程空闲时同样每个 tick 醒来一次；延迟不需要毫秒精度时可以增大 tick
+ *
+ * 用法:
+ * flux.delayElements(Duration.ofMillis(100), scheduler)
+ * flux.timeout(Duration.ofSeconds(1), scheduler)
+ * flux.retryWhen(Retry.backoff(3, Duration.ofMillis(100)).scheduler(scheduler))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/24 15:00
+ * @Version V1.0
+ */
+public final class TimerWheelScheduler implements Scheduler, Scannable, TaskDispatcher {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    public static TimerWheelScheduler create(String name) {
+        return create(name, Duration.ofMillis(1), Schedulers.parallel());
+    }
+
+    /**
+     * @Description: 创建时间轮调度器
+     * @author Levi.Ding
+     * @date 2026/10/24 15:10
+     * @param name : 时间轮线程名
+     * @param tick : 时间轮精度
+     * @param executor : 到期任务的执行者，生命周期由调用方管理
+     * @return : com.cn.demo.schedulers.TimerWheelScheduler
+     */
+    public static TimerWheelScheduler create(String name, Duration tick, Scheduler executor) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(tick, "tick");
+        Objects.requireNonNull(executor, "executor");
+        return new TimerWheelScheduler(name, tick.toNanos(), executor);
+    }
+
+    final String name;
+
+    final HashedTimerWheel wheel;
+
+    final Scheduler executor;
+
+    TimerWheelScheduler(String name, long tickNanos, Scheduler executor) {
+        this.name = name;
+        this.executor = executor;
+        this.wheel = new HashedTimerWheel(name + "-wheel", tickNanos);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        if (wheel.isDisposed()) {
+            throw Exceptions.failWithRejected();
+        }
+        return executor.schedule(task);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0L) {
+            return schedule(task);
+        }
+        ScheduledTask t = new ScheduledTask(task, null);
+        t.future = delay(() -> {
+            if (!t.isDisposed()) {
+                try {
+                    execute(t);
+                }
+                catch (RejectedExecutionException e) {
+                    t.dispose();
+                    Operators.onErrorDropped(e, Context.empty());
+                }
+            }
+        }, delay, unit);
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask p = new PeriodicTask(task, null, this::execute);
+        p.future = periodically(p, initialDelay, period, unit);
+        return p;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(this, this, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (wheel.isDisposed()) {
+            throw Exceptions.failWithRejected();
+        }
+        executor.schedule(task);
+    }
+
+    @Override
+    public Future<?> delay(Runnable task, long delay, TimeUnit unit) {
+        try {
+            return wheel.schedule(task, unit.toNanos(delay), 0L);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> periodically(PeriodicTask task, long initialDelay, long period, TimeUnit unit) {
+        try {
+            return wheel.schedule(task, unit.toNanos(initialDelay), period <= 0L ? -1L : unit.toNanos(period));
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    /**
+     * 未到期且未取消的定时器数量
+     */
+    public long outstandingTimers() {
+        return wheel.outstanding();
+    }
+
+    @Override
+    public void dispose() {
+        wheel.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return wheel.isDisposed();
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+        if (key == Attr.NAME) return name;
+        if (key == Attr.BUFFERED) return (int) Math.min(Integer.MAX_VALUE, wheel.outstanding());
+        if (key == Attr.PARENT) return executor;
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerWheelScheduler(\"" + name + "\", executor=" + executor + ")";
+    }
+}
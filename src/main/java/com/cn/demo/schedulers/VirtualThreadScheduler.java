@@ -0,0 +1,277 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Description 每个任务一个新虚拟线程的 Scheduler
+ *
+ * boundedElastic 的线程数上限为 CPU 核心数 x 10，大量阻塞 I/O 时任务在 BoundedState 的队列中排队；
+ * 虚拟线程阻塞时只占用很少的内存并让出载体线程，可以同时挂起上万个阻塞调用
+ *
+ * 1、立即任务: 每个任务由 {@link VirtualThreads#threadFactory(String)} 创建新的线程执行，执行完线程即结束，不会残留 ThreadLocal
+ * 2、延迟/周期任务: 共用一个平台线程的定时器，定时器只负责到期后提交任务，用户代码始终在虚拟线程上执行；
+ *    周期任务上一次未执行完时跳过本次，不会重叠执行
+ * 3、并发限制: 同时运行的任务不超过 maxConcurrency，超出的进入等待队列(上限 maxQueued，超出时抛出 RejectedExecutionException)，
+ *    有任务结束时再为队首任务创建新线程，保护下游服务不被瞬间打满
+ * 4、Worker: {@link SerialWorker}，任务进入 Worker 自己的队列，由一个虚拟线程串行执行，保证 Worker 的执行顺序，一个 Worker 只占用一个并发额度
+ *
+ * JDK 21 以下 {@link VirtualThreads} 退化为平台线程，此时 maxConcurrency 即为平台线程数上限
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 15:30
+ * @Version V1.0
+ */
+public final class VirtualThreadScheduler implements Scheduler, Scannable, TaskDispatcher {
+
+    public static final int DEFAULT_MAX_QUEUED = 100_000;
+
+    final String name;
+
+    final ThreadFactory factory;
+
+    final int maxConcurrency;
+
+    final int maxQueued;
+
+    final ScheduledExecutorService timer;
+
+    final AtomicInteger active = new AtomicInteger();
+
+    final AtomicInteger queued = new AtomicInteger();
+
+    final Queue<ScheduledTask> pending = new ConcurrentLinkedQueue<>();
+
+    volatile boolean disposed;
+
+    VirtualThreadScheduler(String name, int maxConcurrency, int maxQueued) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued >= 0 required but it was " + maxQueued);
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.factory = VirtualThreads.threadFactory(name);
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static VirtualThreadScheduler create(String name, int maxConcurrency) {
+        return new VirtualThreadScheduler(name, maxConcurrency, DEFAULT_MAX_QUEUED);
+    }
+
+    public static VirtualThreadScheduler create(String name, int maxConcurrency, int maxQueued) {
+        return new VirtualThreadScheduler(name, maxConcurrency, maxQueued);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        ScheduledTask t = new ScheduledTask(task, null);
+        submit(t);
+        return t;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0L) {
+            return schedule(task);
+        }
+        ScheduledTask t = new ScheduledTask(task, null);
+        t.future = delay(() -> {
+            if (!t.isDisposed()) {
+                submitOrDrop(t);
+            }
+        }, delay, unit);
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask p = new PeriodicTask(task, null, this::submit);
+        p.future = periodically(p, initialDelay, period, unit);
+        return p;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(this, this, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        timer.shutdownNow();
+        ScheduledTask t;
+        while ((t = pending.poll()) != null) {
+            queued.decrementAndGet();
+            t.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public int activeCount() {
+        return active.get();
+    }
+
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(new ScheduledTask(task, null));
+    }
+
+    @Override
+    public Future<?> delay(Runnable r, long delay, TimeUnit unit) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            return timer.schedule(r, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> periodically(PeriodicTask task, long initialDelay, long period, TimeUnit unit) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        return PeriodicTask.schedule(timer, task, initialDelay, period, unit);
+    }
+
+    /**
+     * 并发未满时直接启动线程，否则进入等待队列
+     */
+    void submit(ScheduledTask t) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        for (;;) {
+            int a = active.get();
+            if (a >= maxConcurrency) {
+                break;
+            }
+            if (active.compareAndSet(a, a + 1)) {
+                start(t);
+                return;
+            }
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw Exceptions.failWithRejected("VirtualThreadScheduler " + name + " has more than " + maxQueued + " queued tasks");
+        }
+        pending.offer(t);
+        //检查与入队之间可能有任务结束
+        drainPending();
+    }
+
+    void submitOrDrop(ScheduledTask t) {
+        try {
+            submit(t);
+        }
+        catch (RejectedExecutionException e) {
+            t.dispose();
+            Operators.onErrorDropped(e, Context.empty());
+        }
+    }
+
+    void start(ScheduledTask t) {
+        try {
+            factory.newThread(() -> {
+                try {
+                    t.run();
+                }
+                finally {
+                    onTaskDone();
+                }
+            }).start();
+        }
+        catch (Throwable e) {
+            active.decrementAndGet();
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    void onTaskDone() {
+        active.decrementAndGet();
+        drainPending();
+    }
+
+    void drainPending() {
+        for (;;) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            int a = active.get();
+            if (a >= maxConcurrency) {
+                return;
+            }
+            if (!active.compareAndSet(a, a + 1)) {
+                continue;
+            }
+            ScheduledTask t = pending.poll();
+            if (t == null) {
+                active.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            if (t.isDisposed()) {
+                active.decrementAndGet();
+                continue;
+            }
+            try {
+                start(t);
+            }
+            catch (RejectedExecutionException e) {
+                t.dispose();
+                Operators.onErrorDropped(e, Context.empty());
+            }
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) return disposed;
+        if (key == Attr.NAME) return name;
+        if (key == Attr.CAPACITY) return maxConcurrency;
+        if (key == Attr.BUFFERED) return queued.get();
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadScheduler(\"" + name + "\", maxConcurrency=" + maxConcurrency +
+                ", virtual=" + VirtualThreads.isAvailable() + ")";
+    }
+}
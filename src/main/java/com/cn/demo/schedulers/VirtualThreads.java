@@ -0,0 +1,106 @@
+package com.cn.demo.schedulers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description 虚拟线程工具
+ *
+ * 项目以 Java 8 为编译目标，Thread.ofVirtual() 只能通过反射获取；运行在 21 以下的 JDK 时退化为平台 daemon 线程，
+ * 调用方可以通过 {@link #isAvailable()} 判断当前是否真的在使用虚拟线程
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 10:00
+ * @Version V1.0
+ */
+public final class VirtualThreads {
+
+    /**
+     * Thread.ofVirtual() 返回的 Thread.Builder.OfVirtual，不可用时为 null
+     */
+    static final MethodHandle OF_VIRTUAL;
+
+    static final MethodHandle NAME;
+
+    static final MethodHandle FACTORY;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class, long.class));
+            factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            //预览版本中 ofVirtual 存在但调用会抛异常
+            ofVirtual.invoke();
+        }
+        catch (Throwable e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @Description: 以 prefix 加递增序号命名的虚拟线程工厂，不可用时返回平台 daemon 线程工厂
+     * @author Levi.Ding
+     * @date 2026/10/22 10:10
+     * @param prefix :
+     * @return : java.util.concurrent.ThreadFactory
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        if (OF_VIRTUAL != null) {
+            try {
+                return (ThreadFactory) FACTORY.invoke(NAME.invoke(OF_VIRTUAL.invoke(), prefix + "-", 0L));
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException("Unable to create virtual thread factory", e);
+            }
+        }
+        AtomicLong counter = new AtomicLong();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * @Description: 每个任务一个新线程的 ExecutorService，等价于 Executors.newThreadPerTaskExecutor(threadFactory(prefix))；
+     * 不可用时为使用平台线程的 newCachedThreadPool
+     * @author Levi.Ding
+     * @date 2026/10/22 10:12
+     * @param prefix :
+     * @return : java.util.concurrent.ExecutorService
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = threadFactory(prefix);
+        if (OF_VIRTUAL != null) {
+            try {
+                MethodHandle m = MethodHandles.publicLookup().findStatic(Executors.class, "newThreadPerTaskExecutor",
+                        MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+                return (ExecutorService) m.invoke(factory);
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException("Unable to create thread per task executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool(factory);
+    }
+}
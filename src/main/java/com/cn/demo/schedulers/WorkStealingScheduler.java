@@ -0,0 +1,176 @@
+package com.cn.demo.schedulers;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description 基于 ForkJoinPool 的工作窃取 Scheduler
+ *
+ * Schedulers.parallel() 由 N 个单线程 ScheduledExecutorService 组成，createWorker() 按轮询固定绑定到其中一个，
+ * parallel(rails).runOn(...) 中 rails 多于线程数或者各个 rail 的耗时不均时，绑定在同一个线程上的 rail 排队，其他线程却空闲
+ *
+ * 这里每个线程有自己的双端队列(ForkJoinPool asyncMode，本地 FIFO)，空闲线程从其他线程的队列中窃取任务
+ * 1、Worker 为 {@link SerialWorker}: 任务进入 Worker 自己的队列，同一时刻只有一个 drain 在池中执行，Worker 内的顺序与 parallel() 一致；
+ *    窃取的粒度是 Worker 的 drain，而不是单个任务
+ * 2、drain 连续执行 batchSize 个任务后重新提交自己，排在其他 Worker 之后，长时间忙碌的 rail 不会独占线程，下一批可以被任意空闲线程执行
+ * 3、延迟/周期任务共用一个定时器线程，到期后再提交到池中
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/22 17:30
+ * @Version V1.0
+ */
+public final class WorkStealingScheduler implements Scheduler, Scannable, TaskDispatcher {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    final String name;
+
+    final int parallelism;
+
+    final int batchSize;
+
+    final ForkJoinPool pool;
+
+    final ScheduledExecutorService timer;
+
+    WorkStealingScheduler(String name, int parallelism, int batchSize) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize > 0 required but it was " + batchSize);
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        AtomicLong counter = new AtomicLong();
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName(name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, true);
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static WorkStealingScheduler create(String name) {
+        return new WorkStealingScheduler(name, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    public static WorkStealingScheduler create(String name, int parallelism) {
+        return new WorkStealingScheduler(name, parallelism, DEFAULT_BATCH_SIZE);
+    }
+
+    public static WorkStealingScheduler create(String name, int parallelism, int batchSize) {
+        return new WorkStealingScheduler(name, parallelism, batchSize);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        ScheduledTask t = new ScheduledTask(task, null);
+        execute(t);
+        return t;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0L) {
+            return schedule(task);
+        }
+        ScheduledTask t = new ScheduledTask(task, null);
+        t.future = delay(() -> {
+            if (!t.isDisposed()) {
+                pool.execute(t);
+            }
+        }, delay, unit);
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask p = new PeriodicTask(task, null, this::execute);
+        p.future = periodically(p, initialDelay, period, unit);
+        return p;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(this, this, batchSize);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            //在池中的线程上调用时进入该线程自己的队列，其他线程空闲时窃取
+            pool.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> delay(Runnable task, long delay, TimeUnit unit) {
+        try {
+            return timer.schedule(task, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> periodically(PeriodicTask task, long initialDelay, long period, TimeUnit unit) {
+        return PeriodicTask.schedule(timer, task, initialDelay, period, unit);
+    }
+
+    /**
+     * 窃取次数，可用于确认负载不均时确实发生了窃取
+     */
+    public long stealCount() {
+        return pool.getStealCount();
+    }
+
+    @Override
+    public void dispose() {
+        timer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return pool.isShutdown();
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+        if (key == Attr.NAME) return name;
+        if (key == Attr.CAPACITY) return parallelism;
+        if (key == Attr.BUFFERED) return (int) Math.min(Integer.MAX_VALUE, pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount());
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkStealingScheduler(\"" + name + "\", parallelism=" + parallelism + ", batchSize=" + batchSize + ")";
+    }
+}
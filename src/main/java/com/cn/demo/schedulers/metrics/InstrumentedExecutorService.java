@@ -0,0 +1,317 @@
+package com.cn.demo.schedulers.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import reactor.util.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Description 记录排队/执行指标的 ScheduledExecutorService 包装
+ *
+ * 每个任务包装为 {@link TimedTask}: 提交时 queued 加一，开始执行时减一；采样到的任务额外记录等待与执行耗时；
+ * 周期任务只统计第一次执行的等待，执行耗时每次都按采样记录
+ *
+ * invokeAll/invokeAny Reactor 不会使用，直接委托不做统计
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/23 14:30
+ * @Version V1.0
+ */
+final class InstrumentedExecutorService implements ScheduledExecutorService {
+
+    final ScheduledExecutorService delegate;
+
+    final SchedulerInstrumentation.SchedulerMeters meters;
+
+    final AtomicInteger queued = new AtomicInteger();
+
+    final AtomicBoolean shutdown = new AtomicBoolean();
+
+    long id;
+
+    @Nullable
+    Meter queuedGauge;
+
+    InstrumentedExecutorService(ScheduledExecutorService delegate, SchedulerInstrumentation.SchedulerMeters meters) {
+        this.delegate = delegate;
+        this.meters = meters;
+        meters.onExecutorCreated(this);
+    }
+
+    /**
+     * @Description: 排队任务数；Reactor 的 executor 都是 ScheduledThreadPoolExecutor，直接读取其队列长度，与 BoundedState 的估算口径一致
+     * (包含尚未到期的延迟任务与周期任务，取消的任务会被移除)；其他 executor 使用提交/开始计数，已取消未执行的任务会一直计入
+     * @author Levi.Ding
+     * @date 2026/10/23 14:40
+     * @return : int
+     */
+    int queuedTasks() {
+        if (delegate instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) delegate).getQueue().size();
+        }
+        return queued.get();
+    }
+
+    <V> TimedTask<V> wrap(@Nullable Runnable runnable, @Nullable Callable<V> callable, long delayNanos) {
+        boolean sampled = (ThreadLocalRandom.current().nextInt() & meters.sampleMask) == 0;
+        queued.incrementAndGet();
+        return new TimedTask<>(this, runnable, callable, sampled ? System.nanoTime() + delayNanos : 0L);
+    }
+
+    RejectedExecutionException rejected(RejectedExecutionException e) {
+        queued.decrementAndGet();
+        meters.rejected.increment();
+        return e;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        TimedTask<?> t = wrap(command, null, 0L);
+        try {
+            delegate.execute(t);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        TimedTask<?> t = wrap(task, null, 0L);
+        try {
+            return delegate.submit((Runnable) t);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        TimedTask<?> t = wrap(task, null, 0L);
+        try {
+            return delegate.submit(t, result);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        TimedTask<T> t = wrap(null, task, 0L);
+        try {
+            return delegate.submit((Callable<T>) t);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        TimedTask<?> t = wrap(command, null, unit.toNanos(delay));
+        try {
+            return delegate.schedule((Runnable) t, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        TimedTask<V> t = wrap(null, callable, unit.toNanos(delay));
+        try {
+            return delegate.schedule((Callable<V>) t, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        TimedTask<?> t = wrap(command, null, unit.toNanos(initialDelay));
+        try {
+            return delegate.scheduleAtFixedRate(t, initialDelay, period, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        TimedTask<?> t = wrap(command, null, unit.toNanos(initialDelay));
+        try {
+            return delegate.scheduleWithFixedDelay(t, initialDelay, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return delegate.invokeAll(tasks);
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.invokeAll(tasks, timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        return delegate.invokeAny(tasks);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return delegate.invokeAny(tasks, timeout, unit);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+        onShutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> pending = delegate.shutdownNow();
+        onShutdown();
+        return pending;
+    }
+
+    void onShutdown() {
+        if (shutdown.compareAndSet(false, true)) {
+            meters.onExecutorShutdown(this);
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "Instrumented(" + delegate + ")";
+    }
+
+    /**
+     * expectedStart 为 0 表示未采样
+     */
+    static final class TimedTask<V> implements Runnable, Callable<V> {
+
+        final InstrumentedExecutorService parent;
+
+        @Nullable
+        final Runnable runnable;
+
+        @Nullable
+        final Callable<V> callable;
+
+        final long expectedStart;
+
+        boolean started;
+
+        TimedTask(InstrumentedExecutorService parent, @Nullable Runnable runnable, @Nullable Callable<V> callable, long expectedStart) {
+            this.parent = parent;
+            this.runnable = runnable;
+            this.callable = callable;
+            this.expectedStart = expectedStart;
+        }
+
+        long beforeRun() {
+            SchedulerInstrumentation.SchedulerMeters m = parent.meters;
+            long start = 0L;
+            if (expectedStart != 0L) {
+                start = System.nanoTime();
+            }
+            if (!started) {
+                //周期任务只在第一次执行时出队
+                started = true;
+                parent.queued.decrementAndGet();
+                if (start != 0L) {
+                    m.wait.record(Math.max(0L, start - expectedStart), TimeUnit.NANOSECONDS);
+                }
+            }
+            m.active.incrementAndGet();
+            return start;
+        }
+
+        void afterRun(long start) {
+            SchedulerInstrumentation.SchedulerMeters m = parent.meters;
+            m.active.decrementAndGet();
+            if (start != 0L) {
+                m.execution.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            long start = beforeRun();
+            try {
+                if (runnable != null) {
+                    runnable.run();
+                }
+                else if (callable != null) {
+                    callable.call();
+                }
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            finally {
+                afterRun(start);
+            }
+        }
+
+        @Override
+        public V call() throws Exception {
+            long start = beforeRun();
+            try {
+                if (callable != null) {
+                    return callable.call();
+                }
+                if (runnable != null) {
+                    runnable.run();
+                }
+                return null;
+            }
+            finally {
+                afterRun(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.cn.demo.schedulers.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description 通过 {@link Schedulers#addExecutorServiceDecorator} 安装的 Scheduler 指标
+ *
+ * {@link com.cn.demo.schedulers.Demo11#boundedElastic()} 中描述的 BoundedServices.pick() / BoundedState 回收过程没有运行时数据，
+ * 无法判断 maxThreads 是否合适；每个 BoundedState (以及 parallel/single 的每个线程) 都有自己的 ScheduledExecutorService，
+ * 并且都经过 Schedulers.decorateExecutorService 创建，这里把它们包装为 {@link InstrumentedExecutorService}
+ *
+ * 指标(均带 scheduler 及自定义 tags)
+ * 1、scheduler.task.wait          Timer，提交到开始执行的等待时间，延迟任务从预期开始时间算起，按 1/timingSampling 采样
+ * 2、scheduler.task.execution     Timer，执行耗时，与 wait 使用同一个采样结果
+ * 3、scheduler.task.rejected      Counter，被拒绝的任务 (如 boundedElastic 超过 maxTaskQueuedPerThread)
+ * 4、scheduler.executors          Gauge，存活的 executor 数量，boundedElastic 即 BoundedState 数量
+ * 5、scheduler.tasks.queued       Gauge，所有 executor 的排队任务数，口径见 {@link InstrumentedExecutorService#queuedTasks()}
+ * 6、scheduler.tasks.active       Gauge，正在执行的任务数
+ * 7、scheduler.executor.queued    Gauge，每个 executor 的排队任务数 (tag executor 为序号)，executor 关闭后移除
+ *
+ * 注) 装饰器只作用于安装之后创建的 executor，需要在对应 Scheduler 初始化之前调用 {@link Builder#install()}；
+ *     onScheduleHook 拿不到任务所属的 Scheduler，所以这里只使用 executor 装饰器；
+ *     Scheduler 的最后一个 executor 关闭时移除它的全部指标并释放对它的引用 (boundedElastic 之后创建新的 executor 时重新注册)；
+ *     同名 Scheduler 的 tag 依次加上 "#2"、"#3" 后缀，避免后注册的 Gauge 被 MeterRegistry 当作重复注册而忽略
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/23 14:00
+ * @Version V1.0
+ */
+public final class SchedulerInstrumentation implements Disposable {
+
+    public static Builder builder(MeterRegistry registry) {
+        return new Builder(registry);
+    }
+
+    final String key;
+
+    final MeterRegistry registry;
+
+    final Tags tags;
+
+    final int sampleMask;
+
+    final Map<Scheduler, SchedulerMeters> schedulers = new ConcurrentHashMap<>();
+
+    /**
+     * 已使用的 scheduler tag
+     */
+    final Set<String> names = ConcurrentHashMap.newKeySet();
+
+    volatile boolean disposed;
+
+    SchedulerInstrumentation(Builder builder) {
+        this.key = builder.key;
+        this.registry = builder.registry;
+        this.tags = Tags.of(builder.tags);
+        this.sampleMask = builder.timingSampling - 1;
+    }
+
+    ScheduledExecutorService decorate(Scheduler scheduler, ScheduledExecutorService executor) {
+        if (disposed) {
+            return executor;
+        }
+        //计数与移除都在同一个 key 的 compute 中，关闭最后一个 executor 与创建新 executor 不会交错
+        SchedulerMeters meters = schedulers.compute(scheduler, (s, m) -> {
+            if (m == null) {
+                m = createMeters(s);
+            }
+            m.liveExecutors++;
+            return m;
+        });
+        return new InstrumentedExecutorService(executor, meters);
+    }
+
+    SchedulerMeters createMeters(Scheduler scheduler) {
+        String name = Scannable.from(scheduler).scanOrDefault(Scannable.Attr.NAME, scheduler.getClass().getSimpleName());
+        String unique = name;
+        for (int i = 2; !names.add(unique); i++) {
+            unique = name + "#" + i;
+        }
+        return new SchedulerMeters(this, scheduler, unique, sampleMask);
+    }
+
+    /**
+     * @Description: executor 关闭，Scheduler 没有存活的 executor 时移除指标
+     * @author Levi.Ding
+     * @date 2026/10/23 14:25
+     * @param meters :
+     * @return : void
+     */
+    void release(SchedulerMeters meters) {
+        schedulers.computeIfPresent(meters.scheduler, (s, m) -> {
+            if (m != meters || --m.liveExecutors > 0) {
+                return m;
+            }
+            m.remove();
+            names.remove(m.name);
+            return null;
+        });
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        Schedulers.removeExecutorServiceDecorator(key);
+        for (SchedulerMeters meters : schedulers.values()) {
+            meters.remove();
+        }
+        schedulers.clear();
+        names.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * 同一个 Scheduler 的所有 executor 共享的指标
+     */
+    static final class SchedulerMeters {
+
+        final SchedulerInstrumentation parent;
+
+        final Scheduler scheduler;
+
+        final String name;
+
+        final MeterRegistry registry;
+
+        final Tags tags;
+
+        final int sampleMask;
+
+        final Timer wait;
+
+        final Timer execution;
+
+        final Counter rejected;
+
+        final AtomicInteger active = new AtomicInteger();
+
+        final AtomicLong executorIds = new AtomicLong();
+
+        final Set<InstrumentedExecutorService> executors = ConcurrentHashMap.newKeySet();
+
+        final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+        /**
+         * 未关闭的 executor 数，只在 {@link SchedulerInstrumentation#schedulers} 对应 key 的 compute 中读写
+         */
+        int liveExecutors;
+
+        SchedulerMeters(SchedulerInstrumentation parent, Scheduler scheduler, String name, int sampleMask) {
+            this.parent = parent;
+            this.scheduler = scheduler;
+            this.name = name;
+            this.registry = parent.registry;
+            this.tags = parent.tags.and("scheduler", name);
+            this.sampleMask = sampleMask;
+            this.wait = Timer.builder("scheduler.task.wait")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.execution = Timer.builder("scheduler.task.execution")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.rejected = Counter.builder("scheduler.task.rejected")
+                    .tags(tags)
+                    .register(registry);
+            meters.add(wait);
+            meters.add(execution);
+            meters.add(rejected);
+            meters.add(Gauge.builder("scheduler.executors", executors, Set::size)
+                    .tags(tags)
+                    .register(registry));
+            meters.add(Gauge.builder("scheduler.tasks.queued", executors, SchedulerMeters::queued)
+                    .tags(tags)
+                    .register(registry));
+            meters.add(Gauge.builder("scheduler.tasks.active", active, AtomicInteger::get)
+                    .tags(tags)
+                    .register(registry));
+        }
+
+        static double queued(Set<InstrumentedExecutorService> executors) {
+            long n = 0L;
+            for (InstrumentedExecutorService e : executors) {
+                n += e.queuedTasks();
+            }
+            return n;
+        }
+
+        void onExecutorCreated(InstrumentedExecutorService executor) {
+            executor.id = executorIds.incrementAndGet();
+            executor.queuedGauge = Gauge.builder("scheduler.executor.queued", executor, InstrumentedExecutorService::queuedTasks)
+                    .tags(tags)
+                    .tag("executor", Long.toString(executor.id))
+                    .register(registry);
+            executors.add(executor);
+        }
+
+        void onExecutorShutdown(InstrumentedExecutorService executor) {
+            removeExecutor(executor);
+            parent.release(this);
+        }
+
+        void removeExecutor(InstrumentedExecutorService executor) {
+            executors.remove(executor);
+            Meter gauge = executor.queuedGauge;
+            if (gauge != null) {
+                registry.remove(gauge);
+            }
+        }
+
+        void remove() {
+            for (InstrumentedExecutorService e : executors) {
+                removeExecutor(e);
+            }
+            for (Meter m : meters) {
+                registry.remove(m);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        final MeterRegistry registry;
+
+        String key = SchedulerInstrumentation.class.getName();
+
+        Iterable<Tag> tags = Tags.empty();
+
+        int timingSampling = 8;
+
+        Builder(MeterRegistry registry) {
+            this.registry = Objects.requireNonNull(registry, "registry");
+        }
+
+        /**
+         * addExecutorServiceDecorator 的 key，同一个 key 只会安装一个装饰器
+         */
+        public Builder key(String key) {
+            this.key = Objects.requireNonNull(key, "key");
+            return this;
+        }
+
+        public Builder tags(Iterable<Tag> tags) {
+            this.tags = Objects.requireNonNull(tags, "tags");
+            return this;
+        }
+
+        /**
+         * 每 timingSampling 个任务记录一次 wait/execution，向上取整为 2 的幂，1 表示每次都记录，默认 8；
+         * 排队数、活跃数与拒绝数不采样
+         */
+        public Builder timingSampling(int timingSampling) {
+            if (timingSampling <= 0) {
+                throw new IllegalArgumentException("timingSampling > 0 required but it was " + timingSampling);
+            }
+            this.timingSampling = Queues.ceilingNextPowerOfTwo(timingSampling);
+            return this;
+        }
+
+        /**
+         * @Description: 注册 executor 装饰器，之后创建的 executor 都会被包装
+         * @author Levi.Ding
+         * @date 2026/10/23 14:20
+         * @return : com.cn.demo.schedulers.metrics.SchedulerInstrumentation
+         */
+        public SchedulerInstrumentation install() {
+            SchedulerInstrumentation instrumentation = new SchedulerInstrumentation(this);
+            Schedulers.addExecutorServiceDecorator(key, instrumentation::decorate);
+            return instrumentation;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.cn.demo.simple;
 
+import com.cn.demo.operators.fusion.FusedOperators;
+import com.cn.demo.operators.fusion.FusedStage;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
@@ -29,6 +31,8 @@ public class Demo9 {
 //        lambdaSubscriber();
         //SimpleSubscriber
         baseSubscriber();
+        //FusedStage
+//        fusedStage();
         System.in.read();
     }
 
@@ -58,6 +62,21 @@ public class Demo9 {
         share.subscribe(sampleSubscriber);
     }
 
+    /**
+     * @Description: map/filter 写成 {@link FusedStage}，由 {@link FusedOperators#stage(FusedStage)} 执行，
+     * range 与 concatMap 之间仍然保持 SYNC 融合，log() 中可以看到 requestFusion 的结果
+     * @author Levi.Ding
+     * @date 2026/10/21 15:30
+     * @return : void
+     */
+    public static void fusedStage(){
+        Flux.range(1,10)
+                .transform(FusedOperators.stage(FusedStage.<Integer, Integer>map(i -> i * 10).then(FusedStage.filter(i -> i % 20 == 0))))
+                .log()
+                .concatMap(Flux::just)
+                .subscribe(new SampleSubscriber<>(2));
+    }
+
     /**
      * Base 多样性订阅
      * @param <T>
@@ -2,6 +2,17 @@ package com.cn.demo.sinks;
 
 import com.alibaba.fastjson.JSON;
 import com.cn.demo.error.Demo16;
+import com.cn.demo.sinks.handler.ParkingEmitFailureHandler;
+import com.cn.demo.sinks.many.BatchMulticastSink;
+import com.cn.demo.sinks.many.BufferedMulticastSink;
+import com.cn.demo.sinks.many.ConflatingKeyedSink;
+import com.cn.demo.sinks.many.ShardedMulticastSink;
+import com.cn.demo.sinks.metrics.InstrumentedSink;
+import com.cn.demo.sinks.primitive.LongSink;
+import com.cn.demo.sinks.replay.BoundedReplaySink;
+import com.cn.demo.sinks.replay.MappedReplaySink;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Subscription;
@@ -12,9 +23,18 @@ import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @Description Sinks
@@ -36,6 +56,16 @@ public class CustomerSinks {
 //        testSinks();
 //        testOneSinks();
 //        sinksManyUnicast();
+//        sinksManyBatch();
+//        batchEmitBenchmark();
+//        parkingEmitFailureHandler();
+//        sinksManyBuffered();
+//        sinksManyBoundedReplay();
+//        sinksManyMappedReplay();
+//        primitiveSinkAllocation();
+//        shardedEmitBenchmark();
+//        sinksManyConflating();
+//        instrumentedSink();
         sinksManyReplay();
     }
 
@@ -225,4 +255,356 @@ public class CustomerSinks {
         back.asFlux().subscribe(i -> log.info("subscribe2 i : {}",i));
         back.tryEmitNext(5);
     }
+
+    /**
+     * @Description: 批量发射 {@link BatchMulticastSink}
+     *
+     * 整批数据作为一个节点入队，一次 drain() 将整批下发给所有订阅者
+     *
+     * @author Levi.Ding
+     * @date 2026/10/18 11:05
+     * @return : void
+     */
+    public static void sinksManyBatch(){
+        BatchMulticastSink<Integer> batch = BatchMulticastSink.create();
+        batch.tryEmitNext(1);
+        batch.tryEmitBatch(Arrays.asList(2, 3, 4));
+        batch.asFlux().subscribe(i -> log.info("subscribe1 i : {}",i));
+        batch.asFlux().subscribe(i -> log.info("subscribe2 i : {}",i));
+        batch.tryEmitNextAll(new Integer[]{5, 6, 7});
+        batch.tryEmitComplete();
+    }
+
+    /**
+     * @Description: 逐条发射(onBackpressureBuffer + emitNext) 与 批量发射({@link BatchMulticastSink#emitNextAll}) 对比
+     *
+     * 1、4、16 个生产线程，2 个无界订阅者，每个生产线程发射相同数量的元素
+     * 逐条发射在多线程下会出现 FAIL_NON_SERIALIZED，需要 EmitFailureHandler 重试
+     *
+     * @author Levi.Ding
+     * @date 2026/10/18 11:12
+     * @return : void
+     */
+    public static void batchEmitBenchmark() throws InterruptedException {
+        int total = 1 << 21;
+        int batchSize = 64;
+        for (int round = 0; round < 3; round++) {
+            for (int producers : new int[]{1, 4, 16}) {
+                long single = runEmitBenchmark(Sinks.many().multicast().onBackpressureBuffer(), producers, total, 1);
+                long batch = runEmitBenchmark(BatchMulticastSink.create(Integer.MAX_VALUE), producers, total, batchSize);
+                log.info("round : {} , producers : {} , emitNext : {} ms ({} ops/ms) , emitNextAll({}) : {} ms ({} ops/ms)",
+                        round, producers,
+                        TimeUnit.NANOSECONDS.toMillis(single), total * 1_000_000L / Math.max(single, 1),
+                        batchSize,
+                        TimeUnit.NANOSECONDS.toMillis(batch), total * 1_000_000L / Math.max(batch, 1));
+            }
+        }
+    }
+
+    /**
+     * @Description: 多生产者扇入对比 onBackpressureBuffer 与 {@link ShardedMulticastSink}
+     *
+     * 生产者数量从 1 增加到 32，分片 Sink 每个生产者写自己的 lane，吞吐应随生产者数量近似线性增长
+     *
+     * @author Levi.Ding
+     * @date 2026/10/19 17:10
+     * @return : void
+     */
+    public static void shardedEmitBenchmark() throws InterruptedException {
+        int total = 1 << 22;
+        for (int round = 0; round < 3; round++) {
+            for (int producers : new int[]{1, 4, 16, 32}) {
+                long single = runEmitBenchmark(Sinks.many().multicast().onBackpressureBuffer(), producers, total, 1);
+                long sharded = runEmitBenchmark(ShardedMulticastSink.create(1024, 16), producers, total, 1);
+                log.info("round : {} , producers : {} , onBackpressureBuffer : {} ms ({} ops/ms) , sharded : {} ms ({} ops/ms)",
+                        round, producers,
+                        TimeUnit.NANOSECONDS.toMillis(single), total * 1_000_000L / Math.max(single, 1),
+                        TimeUnit.NANOSECONDS.toMillis(sharded), total * 1_000_000L / Math.max(sharded, 1));
+            }
+        }
+    }
+
+    private static long runEmitBenchmark(Sinks.Many<Integer> many, int producers, int total, int batchSize) throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            many.asFlux().subscribe(v -> {}, e -> completed.countDown(), completed::countDown);
+        }
+        Sinks.EmitFailureHandler retryNonSerialized = (signalType, emitResult) -> emitResult == Sinks.EmitResult.FAIL_NON_SERIALIZED
+                || emitResult == Sinks.EmitResult.FAIL_OVERFLOW;
+        Integer value = 1000;
+        Integer[] values = new Integer[batchSize];
+        Arrays.fill(values, value);
+        int perProducer = total / producers;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (many instanceof BatchMulticastSink) {
+                    BatchMulticastSink<Integer> batch = (BatchMulticastSink<Integer>) many;
+                    for (int i = 0; i < perProducer; i += batchSize) {
+                        batch.emitNextAll(values, retryNonSerialized);
+                    }
+                }
+                else {
+                    for (int i = 0; i < perProducer; i++) {
+                        many.emitNext(value, retryNonSerialized);
+                    }
+                }
+            }, "producer-" + p);
+            t.start();
+            threads.add(t);
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        many.emitComplete(retryNonSerialized);
+        completed.await();
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * @Description: 多线程并发 emitNext
+     *
+     * FAIL_FAST 下并发发射会抛出 FAIL_NON_SERIALIZED，{@link ParkingEmitFailureHandler} 按 spin -> yield -> park 逐级退让，
+     * 超过 deadline 才抛出异常，最后输出各阶段次数
+     *
+     * @author Levi.Ding
+     * @date 2026/10/18 14:40
+     * @return : void
+     */
+    public static void parkingEmitFailureHandler() throws InterruptedException {
+        Sinks.Many<Integer> many = Sinks.many().multicast().onBackpressureBuffer();
+        ParkingEmitFailureHandler.Policy policy = ParkingEmitFailureHandler.builder()
+                .spins(32)
+                .yields(8)
+                .park(Duration.ofNanos(10_000), Duration.ofMillis(1))
+                .deadline(Duration.ofSeconds(2))
+                .build();
+        AtomicLong received = new AtomicLong();
+        many.asFlux().subscribe(i -> received.incrementAndGet());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    many.emitNext(i, policy.newHandler());
+                }
+            }, "producer-" + p);
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        log.info("received : {} , {}", received.get(), policy.stats());
+    }
+
+    /**
+     * @Description: 每个订阅者独立缓冲 {@link BufferedMulticastSink}
+     *
+     * 订阅者2 每个元素 sleep 1s，只会丢弃自己缓冲区中最早的数据，不会拖慢订阅者1
+     *
+     * @author Levi.Ding
+     * @date 2026/10/18 16:02
+     * @return : void
+     */
+    public static void sinksManyBuffered() throws IOException {
+        BufferedMulticastSink<Integer> buffered = BufferedMulticastSink.create(4, BufferedMulticastSink.OverflowStrategy.DROP_OLDEST);
+        buffered.asFlux(32, BufferedMulticastSink.OverflowStrategy.DROP_LATEST)
+                .subscribe(i -> log.info("ThreadName : {} , subscribe1 i : {}", Thread.currentThread().getName(), i));
+        buffered.asFlux()
+                .subscribe(i -> {
+                    try {
+                        TimeUnit.SECONDS.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    log.info("ThreadName : {} , subscribe2 i : {}", Thread.currentThread().getName(), i);
+                });
+        for (int i = 0; i < 20; i++) {
+            buffered.tryEmitNext(i);
+        }
+        System.in.read();
+    }
+
+    /**
+     * @Description: 内存有界的 replay {@link BoundedReplaySink}
+     *
+     * 与 {@link #sinksManyReplay()} 不同，最多保留 3 个元素 / 64 字节 / 1 分钟内的数据，后订阅者只能拿到保留下来的数据
+     *
+     * @author Levi.Ding
+     * @date 2026/10/18 17:20
+     * @return : void
+     */
+    public static void sinksManyBoundedReplay(){
+        BoundedReplaySink<String> replay = BoundedReplaySink.create(3, 64, Duration.ofMinutes(1), s -> 40L + 2L * s.length());
+        replay.tryEmitNext("1");
+        replay.tryEmitNext("2");
+        replay.asFlux().subscribe(i -> log.info("subscribe1 i : {}",i));
+        replay.tryEmitNext("3");
+        replay.tryEmitNext("4");
+        log.info("retained count : {} , retained bytes : {}", replay.retainedCount(), replay.retainedBytes());
+        replay.asFlux().subscribe(i -> log.info("subscribe2 i : {}",i));
+        replay.tryEmitNext("5");
+    }
+
+    /**
+     * @Description: 基于内存映射文件的 replay {@link MappedReplaySink}
+     *
+     * 段大小 64 字节，最多保留 2 个段，堆上只保留最近 2 个元素；后订阅者从磁盘回放仍保留的段
+     *
+     * @author Levi.Ding
+     * @date 2026/10/19 11:30
+     * @return : void
+     */
+    public static void sinksManyMappedReplay() throws IOException {
+        MappedReplaySink<String> replay = MappedReplaySink.builder(Files.createTempDirectory("replay"), new MappedReplaySink.Codec<String>() {
+                    @Override
+                    public int sizeOf(String value) {
+                        return value.getBytes(StandardCharsets.UTF_8).length;
+                    }
+
+                    @Override
+                    public void encode(String value, ByteBuffer target) {
+                        target.put(value.getBytes(StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public String decode(ByteBuffer source) {
+                        return StandardCharsets.UTF_8.decode(source).toString();
+                    }
+                })
+                .segmentSize(64)
+                .heapTail(2)
+                .retainSegments(2)
+                .build();
+        replay.asFlux().subscribe(i -> log.info("subscribe1 i : {}",i));
+        for (int i = 0; i < 20; i++) {
+            replay.tryEmitNext("element-" + i);
+        }
+        replay.asFlux().subscribe(i -> log.info("subscribe2 i : {}",i));
+        replay.tryEmitComplete();
+        replay.dispose();
+    }
+
+    /**
+     * @Description: 装箱 Sink 与 {@link LongSink} 的分配对比
+     *
+     * 同一线程中分别发射 1000 万个 long，订阅者在发射线程中同步消费，
+     * 通过 {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} 统计当前线程的分配字节数
+     *
+     * @author Levi.Ding
+     * @date 2026/10/19 15:30
+     * @return : void
+     */
+    public static void primitiveSinkAllocation(){
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int count = 10_000_000;
+        for (int round = 0; round < 3; round++) {
+            AtomicLong boxedSum = new AtomicLong();
+            Sinks.Many<Long> boxed = Sinks.many().unicast().onBackpressureBuffer();
+            boxed.asFlux().subscribe(boxedSum::addAndGet);
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (long i = 0; i < count; i++) {
+                boxed.tryEmitNext(i);
+            }
+            long boxedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            long boxedNanos = System.nanoTime() - start;
+
+            long[] primitiveSum = new long[1];
+            LongSink primitive = LongSink.create();
+            primitive.subscribe(v -> primitiveSum[0] += v);
+            before = threadMXBean.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (long i = 0; i < count; i++) {
+                primitive.tryEmitNext(i);
+            }
+            long primitiveBytes = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            long primitiveNanos = System.nanoTime() - start;
+
+            log.info("round {} boxed : {} bytes/element , {} ms , sum : {}", round, (double) boxedBytes / count, TimeUnit.NANOSECONDS.toMillis(boxedNanos), boxedSum.get());
+            log.info("round {} long  : {} bytes/element , {} ms , sum : {}", round, (double) primitiveBytes / count, TimeUnit.NANOSECONDS.toMillis(primitiveNanos), primitiveSum[0]);
+        }
+    }
+
+    /**
+     * @Description: 按 key 合并 {@link ConflatingKeyedSink}
+     *
+     * 4 个 key 各更新 1000 次，快订阅者收到全部 4000 次更新，
+     * 慢订阅者每 100ms 请求一个元素，只能收到每个 key 当时的最新值
+     *
+     * @author Levi.Ding
+     * @date 2026/10/19 18:40
+     * @return : void
+     */
+    public static void sinksManyConflating() throws InterruptedException {
+        ConflatingKeyedSink<String, String> prices = ConflatingKeyedSink.keyedBy(s -> s.substring(0, s.indexOf('=')));
+        AtomicLong fast = new AtomicLong();
+        prices.asFlux().subscribe(i -> fast.incrementAndGet());
+        prices.asFlux()
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .delayElements(Duration.ofMillis(100))
+                .subscribe(i -> log.info("slow subscribe i : {}", i));
+        String[] keys = {"BTC", "ETH", "SOL", "DOGE"};
+        for (int i = 0; i < 1000; i++) {
+            for (String key : keys) {
+                prices.tryEmitNext(key + "=" + i);
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        TimeUnit.SECONDS.sleep(1);
+        log.info("fast received : {} , conflated : {}", fast.get(), prices.conflatedCount());
+    }
+
+    /**
+     * @Description: 带指标的 Sink {@link InstrumentedSink}
+     *
+     * 与 {@link #createThread(String, Sinks.Many, BaseSubscriber)} 一样订阅者先不请求，第 5 个元素后再请求，
+     * 通过 registry 查看每种 EmitResult 的数量、缓冲区深度、订阅者未满足的请求量以及 lag
+     *
+     * @author Levi.Ding
+     * @date 2026/10/20 10:50
+     * @return : void
+     */
+    public static void instrumentedSink(){
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InstrumentedSink<Object> many = InstrumentedSink.builder(Sinks.many().multicast().onBackpressureBuffer(4, false), registry)
+                .name("back")
+                .latencySampling(1)
+                .build();
+        BaseSubscriber<Object> subscriber = new BaseSubscriber<Object>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(2);
+            }
+
+            @Override
+            protected void hookOnNext(Object value) {
+                log.info("back subscribe i : {}", value);
+            }
+        };
+        many.asFlux().subscribe(subscriber);
+        for (int i = 0; i < 10; i++) {
+            many.tryEmitNext(i);
+            if (i == 5) {
+                for (Meter meter : registry.getMeters()) {
+                    log.info("{} {} : {}", meter.getId().getName(), meter.getId().getTags(), meter.measure());
+                }
+                subscriber.request(Integer.MAX_VALUE);
+            }
+        }
+        for (Meter meter : registry.getMeters()) {
+            log.info("{} {} : {}", meter.getId().getName(), meter.getId().getTags(), meter.measure());
+        }
+    }
 }
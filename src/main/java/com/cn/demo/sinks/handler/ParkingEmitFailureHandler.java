@@ -0,0 +1,250 @@
+package com.cn.demo.sinks.handler;
+
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Description 竞争感知的 EmitFailureHandler
+ *
+ * {@link Sinks.EmitFailureHandler#FAIL_FAST} 多线程并发 emitNext 时会直接抛出 FAIL_NON_SERIALIZED，
+ * {@link Sinks.EmitFailureHandler#busyLooping(Duration)} 则会一直空转占用 CPU
+ *
+ * 当前实现按阶段逐级退让
+ * 1、spin   前 spins 次失败直接重试
+ * 2、yield  接下来 yields 次失败调用 Thread.yield()
+ * 3、park   之后 LockSupport.parkNanos()，park 时间从 minPark 开始翻倍，直到 maxPark
+ * 超过 deadline 后返回 false，由 emitNext 按 FAIL_NON_SERIALIZED 抛出 {@link Sinks.EmissionException}
+ *
+ * 每个阶段的次数会累计到 {@link Policy#stats()} 中，可用于评估生产者并发数
+ *
+ * 注) 与 {@link Sinks.EmitFailureHandler#busyLooping(Duration)} 一样，每个实例只对应一次发射，重试状态保存在实例中，
+ *     不能在多次发射或多个线程之间共享；配置与统计放在 {@link Policy} 中共享，每次发射通过 {@link Policy#newHandler()} 获取新实例:
+ *     many.emitNext(v, policy.newHandler())
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/18 14:02
+ * @Version V1.0
+ */
+public final class ParkingEmitFailureHandler implements Sinks.EmitFailureHandler {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    final Policy policy;
+
+    /**
+     * 本次发射的失败次数，0 表示尚未失败
+     */
+    int attempts;
+
+    long deadline;
+
+    long parkNanos;
+
+    ParkingEmitFailureHandler(Policy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public boolean onEmitFailure(SignalType signalType, Sinks.EmitResult emitResult) {
+        Policy p = policy;
+        if (emitResult != Sinks.EmitResult.FAIL_NON_SERIALIZED
+                && !(p.retryOverflow && emitResult == Sinks.EmitResult.FAIL_OVERFLOW)) {
+            return false;
+        }
+        if (attempts == 0) {
+            deadline = System.nanoTime() + p.deadlineNanos;
+            parkNanos = p.minParkNanos;
+            p.stats.contended.increment();
+        }
+        else if (System.nanoTime() - deadline > 0) {
+            p.stats.timeouts.increment();
+            return false;
+        }
+        int attempt = ++attempts;
+        if (attempt <= p.spins) {
+            p.stats.spins.increment();
+        }
+        else if (attempt <= p.spins + p.yields) {
+            p.stats.yields.increment();
+            Thread.yield();
+        }
+        else {
+            p.stats.parks.increment();
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, p.maxParkNanos);
+        }
+        return true;
+    }
+
+    /**
+     * 退让配置与累计统计，可以在多个线程之间共享
+     */
+    public static final class Policy {
+
+        final int spins;
+
+        final int yields;
+
+        final long minParkNanos;
+
+        final long maxParkNanos;
+
+        final long deadlineNanos;
+
+        final boolean retryOverflow;
+
+        final Stats stats = new Stats();
+
+        Policy(Builder builder) {
+            this.spins = builder.spins;
+            this.yields = builder.yields;
+            this.minParkNanos = builder.minParkNanos;
+            this.maxParkNanos = builder.maxParkNanos;
+            this.deadlineNanos = builder.deadlineNanos;
+            this.retryOverflow = builder.retryOverflow;
+        }
+
+        /**
+         * @Description: 为一次发射创建新的 handler，deadline 从第一次失败开始计算
+         * @author Levi.Ding
+         * @date 2026/10/18 14:20
+         * @return : com.cn.demo.sinks.handler.ParkingEmitFailureHandler
+         */
+        public ParkingEmitFailureHandler newHandler() {
+            return new ParkingEmitFailureHandler(this);
+        }
+
+        public Stats stats() {
+            return stats;
+        }
+    }
+
+    /**
+     * 各退让阶段的累计次数
+     */
+    public static final class Stats {
+
+        final LongAdder contended = new LongAdder();
+
+        final LongAdder spins = new LongAdder();
+
+        final LongAdder yields = new LongAdder();
+
+        final LongAdder parks = new LongAdder();
+
+        final LongAdder timeouts = new LongAdder();
+
+        /**
+         * 出现竞争的发射次数
+         */
+        public long contended() {
+            return contended.sum();
+        }
+
+        public long spins() {
+            return spins.sum();
+        }
+
+        public long yields() {
+            return yields.sum();
+        }
+
+        public long parks() {
+            return parks.sum();
+        }
+
+        /**
+         * 超过 deadline 放弃的次数
+         */
+        public long timeouts() {
+            return timeouts.sum();
+        }
+
+        public void reset() {
+            contended.reset();
+            spins.reset();
+            yields.reset();
+            parks.reset();
+            timeouts.reset();
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{contended=" + contended() +
+                    ", spins=" + spins() +
+                    ", yields=" + yields() +
+                    ", parks=" + parks() +
+                    ", timeouts=" + timeouts() + '}';
+        }
+    }
+
+    public static final class Builder {
+
+        int spins = 64;
+
+        int yields = 16;
+
+        long minParkNanos = TimeUnit.MICROSECONDS.toNanos(10);
+
+        long maxParkNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+        long deadlineNanos = TimeUnit.SECONDS.toNanos(1);
+
+        boolean retryOverflow;
+
+        Builder() {
+        }
+
+        public Builder spins(int spins) {
+            if (spins < 0) {
+                throw new IllegalArgumentException("spins >= 0 required but it was " + spins);
+            }
+            this.spins = spins;
+            return this;
+        }
+
+        public Builder yields(int yields) {
+            if (yields < 0) {
+                throw new IllegalArgumentException("yields >= 0 required but it was " + yields);
+            }
+            this.yields = yields;
+            return this;
+        }
+
+        public Builder park(Duration min, Duration max) {
+            if (min.isNegative() || min.isZero() || max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("0 < min <= max required but it was " + min + ", " + max);
+            }
+            this.minParkNanos = min.toNanos();
+            this.maxParkNanos = max.toNanos();
+            return this;
+        }
+
+        public Builder deadline(Duration deadline) {
+            if (deadline.isNegative()) {
+                throw new IllegalArgumentException("deadline >= 0 required but it was " + deadline);
+            }
+            this.deadlineNanos = deadline.toNanos();
+            return this;
+        }
+
+        /**
+         * FAIL_OVERFLOW 时同样退让重试(等待订阅者消费)，默认只重试 FAIL_NON_SERIALIZED
+         */
+        public Builder retryOverflow(boolean retryOverflow) {
+            this.retryOverflow = retryOverflow;
+            return this;
+        }
+
+        public Policy build() {
+            return new Policy(this);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cn.demo.sinks.many;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+/**
+ * @Description 自定义 Sinks.Many 基类
+ *
+ * emitNext/emitComplete/emitError 基于 tryEmitXxx + {@link Sinks.EmitFailureHandler} 实现，
+ * 失败处理逻辑与 {@link reactor.core.publisher.InternalManySink#emitNext(java.lang.Object, reactor.core.publisher.Sinks.EmitFailureHandler)} 保持一致
+ *
+ * 子类只需实现 tryEmitNext/tryEmitComplete/tryEmitError 以及 {@link Flux#subscribe(reactor.core.CoreSubscriber)}
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/18 10:12
+ * @Version V1.0
+ */
+public abstract class AbstractManySink<T> extends Flux<T> implements Sinks.Many<T> {
+
+    @Override
+    public void emitNext(T t, Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitNext(t);
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_NEXT, emitResult)) {
+                continue;
+            }
+            switch (emitResult) {
+                case FAIL_ZERO_SUBSCRIBER:
+                    return;
+                case FAIL_OVERFLOW:
+                    Operators.onDiscard(t, Context.empty());
+                    emitError(Exceptions.failWithOverflow("Backpressure overflow during Sinks.Many#emitNext"), failureHandler);
+                    return;
+                case FAIL_CANCELLED:
+                    Operators.onDiscard(t, Context.empty());
+                    return;
+                case FAIL_TERMINATED:
+                    Operators.onNextDropped(t, Context.empty());
+                    return;
+                case FAIL_NON_SERIALIZED:
+                    throw new Sinks.EmissionException(emitResult,
+                            "Spec. Rule 1.3 - onSubscribe, onNext, onError and onComplete signaled to a Subscriber MUST be signaled serially.");
+                default:
+                    throw new Sinks.EmissionException(emitResult, "Unknown emitResult value");
+            }
+        }
+    }
+
+    @Override
+    public void emitComplete(Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitComplete();
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_COMPLETE, emitResult)) {
+                continue;
+            }
+            switch (emitResult) {
+                case FAIL_ZERO_SUBSCRIBER:
+                case FAIL_OVERFLOW:
+                case FAIL_CANCELLED:
+                case FAIL_TERMINATED:
+                    return;
+                case FAIL_NON_SERIALIZED:
+                    throw new Sinks.EmissionException(emitResult,
+                            "Spec. Rule 1.3 - onSubscribe, onNext, onError and onComplete signaled to a Subscriber MUST be signaled serially.");
+                default:
+                    throw new Sinks.EmissionException(emitResult, "Unknown emitResult value");
+            }
+        }
+    }
+
+    @Override
+    public void emitError(Throwable error, Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitError(error);
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_ERROR, emitResult)) {
+                continue;
+            }
+            switch (emitResult) {
+                case FAIL_ZERO_SUBSCRIBER:
+                case FAIL_OVERFLOW:
+                case FAIL_CANCELLED:
+                    return;
+                case FAIL_TERMINATED:
+                    Operators.onErrorDropped(error, Context.empty());
+                    return;
+                case FAIL_NON_SERIALIZED:
+                    throw new Sinks.EmissionException(emitResult,
+                            "Spec. Rule 1.3 - onSubscribe, onNext, onError and onComplete signaled to a Subscriber MUST be signaled serially.");
+                default:
+                    throw new Sinks.EmissionException(emitResult, "Unknown emitResult value");
+            }
+        }
+    }
+
+    @Override
+    public Flux<T> asFlux() {
+        return this;
+    }
+}
@@ -0,0 +1,532 @@
+package com.cn.demo.sinks.many;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * @Description 支持批量发射的多订阅者 Sink
+ *
+ * 对比 {@link reactor.core.publisher.SinkManyEmitterProcessor}：
+ * Sinks.many().multicast().onBackpressureBuffer() 每个元素都要经过 SinkManySerialized 的 CAS、一次 queue offer 以及一次完整的 drain()
+ *
+ * 当前实现
+ * 1、队列为多生产者队列 {@link Queues#unboundedMultiproducer()}，多个线程可以同时发射，不会出现 FAIL_NON_SERIALIZED
+ * 2、{@link #tryEmitBatch(List)}/{@link #tryEmitNextAll(Object[])} 将整批数据作为一个节点入队，一次 CAS + 一次 drain() 完成整批投递
+ * 3、drain() 与 SinkManyEmitterProcessor 一致，获取所有 subscribers 中最小的 requested 后统一下发
+ *
+ * 注) 没有订阅者时数据会缓存在队列中，直到第一个订阅者订阅（与 onBackpressureBuffer 一致），超过 bufferSize 时返回 FAIL_OVERFLOW；
+ *     所有订阅者取消后不会自动终止当前 Sink (等同于 onBackpressureBuffer(bufferSize, false))
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/18 10:30
+ * @Version V1.0
+ */
+public final class BatchMulticastSink<T> extends AbstractManySink<T> {
+
+    @SuppressWarnings("rawtypes")
+    static final BatchInner[] EMPTY = new BatchInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final BatchInner[] TERMINATED = new BatchInner[0];
+
+    public static <T> BatchMulticastSink<T> create() {
+        return create(Queues.SMALL_BUFFER_SIZE);
+    }
+
+    public static <T> BatchMulticastSink<T> create(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+        }
+        return new BatchMulticastSink<>(bufferSize);
+    }
+
+    final int bufferSize;
+
+    /**
+     * 单个元素直接入队，批量数据以 {@link Batch} 节点入队
+     */
+    final Queue<Object> queue;
+
+    volatile BatchInner<T>[] subscribers;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<BatchMulticastSink, BatchInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(BatchMulticastSink.class, BatchInner[].class, "subscribers");
+
+    volatile int wip;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<BatchMulticastSink> WIP =
+            AtomicIntegerFieldUpdater.newUpdater(BatchMulticastSink.class, "wip");
+
+    /**
+     * 已入队但还未下发的元素数量
+     */
+    volatile long size;
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<BatchMulticastSink> SIZE =
+            AtomicLongFieldUpdater.newUpdater(BatchMulticastSink.class, "size");
+
+    /**
+     * 0 运行中, 1 正在写入 error, 2 已终止(error 可见)
+     */
+    volatile int done;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<BatchMulticastSink> DONE =
+            AtomicIntegerFieldUpdater.newUpdater(BatchMulticastSink.class, "done");
+
+    volatile Throwable error;
+
+    /**
+     * 已通过终止检查、尚未完成入队的发射线程数；drain() 只在该值为 0 时才根据队列为空判断终止，
+     * 保证返回 OK 的元素一定在终止信号之前下发
+     */
+    volatile int emitters;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<BatchMulticastSink> EMITTERS =
+            AtomicIntegerFieldUpdater.newUpdater(BatchMulticastSink.class, "emitters");
+
+    /**
+     * 当前正在下发的批次，只在 drain() 中访问
+     */
+    Batch current;
+
+    @SuppressWarnings("unchecked")
+    BatchMulticastSink(int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.queue = Queues.<Object>unboundedMultiproducer().get();
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Objects.requireNonNull(t, "t");
+        EMITTERS.incrementAndGet(this);
+        if (done != 0) {
+            EMITTERS.decrementAndGet(this);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!reserve(1)) {
+            EMITTERS.decrementAndGet(this);
+            return Sinks.EmitResult.FAIL_OVERFLOW;
+        }
+        queue.offer(t);
+        EMITTERS.decrementAndGet(this);
+        drain();
+        return Sinks.EmitResult.OK;
+    }
+
+    /**
+     * @Description: 批量发射，整批作为一个队列节点，只触发一次 drain()
+     *
+     * 缓冲区剩余空间不足以容纳整批时，整批返回 FAIL_OVERFLOW (不会出现半批入队)
+     *
+     * @author Levi.Ding
+     * @date 2026/10/18 10:41
+     * @param values : 批量数据
+     * @return : reactor.core.publisher.Sinks.EmitResult
+     */
+    public Sinks.EmitResult tryEmitBatch(List<? extends T> values) {
+        return offerAll(values.toArray());
+    }
+
+    /**
+     * @Description: 批量发射，数组直接作为队列节点(不拷贝)，调用后直到下发完成前不可修改数组内容
+     * @author Levi.Ding
+     * @date 2026/10/18 10:43
+     * @param values :
+     * @return : reactor.core.publisher.Sinks.EmitResult
+     */
+    public Sinks.EmitResult tryEmitNextAll(T[] values) {
+        return offerAll(values);
+    }
+
+    public void emitBatch(List<? extends T> values, Sinks.EmitFailureHandler failureHandler) {
+        emitAll(values.toArray(), failureHandler);
+    }
+
+    public void emitNextAll(T[] values, Sinks.EmitFailureHandler failureHandler) {
+        emitAll(values, failureHandler);
+    }
+
+    Sinks.EmitResult offerAll(Object[] values) {
+        for (Object v : values) {
+            Objects.requireNonNull(v, "values contains null");
+        }
+        EMITTERS.incrementAndGet(this);
+        if (done != 0) {
+            EMITTERS.decrementAndGet(this);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (values.length == 0) {
+            EMITTERS.decrementAndGet(this);
+            return Sinks.EmitResult.OK;
+        }
+        if (!reserve(values.length)) {
+            EMITTERS.decrementAndGet(this);
+            return Sinks.EmitResult.FAIL_OVERFLOW;
+        }
+        queue.offer(values.length == 1 ? values[0] : new Batch(values));
+        EMITTERS.decrementAndGet(this);
+        drain();
+        return Sinks.EmitResult.OK;
+    }
+
+    /**
+     * @Description: 与 {@link #emitNext(Object, Sinks.EmitFailureHandler)} 相同的失败处理，
+     * FAIL_OVERFLOW 时整批丢弃并以 overflow 错误终止
+     * @author Levi.Ding
+     * @date 2026/10/18 10:47
+     * @param values :
+     * @param failureHandler :
+     * @return : void
+     */
+    void emitAll(Object[] values, Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = offerAll(values);
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_NEXT, emitResult)) {
+                continue;
+            }
+            if (emitResult == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                throw new Sinks.EmissionException(emitResult, "Unexpected emitResult value");
+            }
+            for (Object v : values) {
+                if (emitResult == Sinks.EmitResult.FAIL_TERMINATED) {
+                    Operators.onNextDropped(v, Context.empty());
+                }
+                else {
+                    Operators.onDiscard(v, Context.empty());
+                }
+            }
+            if (emitResult == Sinks.EmitResult.FAIL_OVERFLOW) {
+                emitError(Exceptions.failWithOverflow("Backpressure overflow during Sinks.Many#emitNextAll"), failureHandler);
+            }
+            return;
+        }
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        if (!DONE.compareAndSet(this, 0, 2)) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        drain();
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        Objects.requireNonNull(error, "error");
+        if (!DONE.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        this.error = error;
+        done = 2;
+        drain();
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return subscribers.length;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.TERMINATED) return subscribers == TERMINATED;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.BUFFERED) return (int) Math.min(size, Integer.MAX_VALUE);
+        if (key == Attr.CAPACITY) return bufferSize;
+        return null;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        BatchInner<T> inner = new BatchInner<>(actual, this);
+        actual.onSubscribe(inner);
+        if (add(inner)) {
+            if (inner.isCancelled()) {
+                remove(inner);
+            }
+            drain();
+        }
+        else {
+            Throwable e = error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+    }
+
+    boolean reserve(int n) {
+        for (;;) {
+            long s = size;
+            if (s + n > bufferSize) {
+                return false;
+            }
+            if (SIZE.compareAndSet(this, s, s + n)) {
+                return true;
+            }
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    T poll() {
+        Batch b = current;
+        if (b == null) {
+            Object o = queue.poll();
+            if (o == null) {
+                return null;
+            }
+            if (!(o instanceof Batch)) {
+                return (T) o;
+            }
+            b = (Batch) o;
+            current = b;
+        }
+        Object v = b.values[b.index];
+        if (++b.index == b.values.length) {
+            current = null;
+        }
+        return (T) v;
+    }
+
+    /**
+     * 已终止且没有正在入队的发射，此后读取到的队列状态即为最终状态
+     */
+    boolean isDone() {
+        return done == 2 && emitters == 0;
+    }
+
+    boolean isEmpty() {
+        return current == null && queue.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    void drain() {
+        if (WIP.getAndIncrement(this) != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            BatchInner<T>[] a = subscribers;
+            if (a == TERMINATED) {
+                return;
+            }
+            boolean d = isDone();
+            if (a.length != 0) {
+                long maxRequested = Long.MAX_VALUE;
+                for (BatchInner<T> inner : a) {
+                    long r = inner.requested;
+                    if (r >= 0L) {
+                        maxRequested = Math.min(maxRequested, r);
+                    }
+                }
+
+                long e = 0L;
+                while (e != maxRequested) {
+                    d = isDone();
+                    T v = poll();
+                    boolean empty = v == null;
+                    if (d && empty) {
+                        terminate();
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    for (BatchInner<T> inner : a) {
+                        inner.actual.onNext(v);
+                    }
+                    e++;
+                }
+
+                if (e == maxRequested && isDone() && isEmpty()) {
+                    terminate();
+                    return;
+                }
+
+                if (e != 0L) {
+                    SIZE.addAndGet(this, -e);
+                    if (maxRequested != Long.MAX_VALUE) {
+                        for (BatchInner<T> inner : a) {
+                            inner.produced(e);
+                        }
+                    }
+                }
+            }
+            else if (d && isEmpty()) {
+                terminate();
+                return;
+            }
+
+            missed = WIP.addAndGet(this, -missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void terminate() {
+        Throwable e = error;
+        for (BatchInner<T> inner : SUBSCRIBERS.getAndSet(this, TERMINATED)) {
+            if (e != null) {
+                inner.actual.onError(e);
+            }
+            else {
+                inner.actual.onComplete();
+            }
+        }
+    }
+
+    boolean add(BatchInner<T> inner) {
+        for (;;) {
+            BatchInner<T>[] a = subscribers;
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings("unchecked")
+            BatchInner<T>[] b = new BatchInner[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(BatchInner<T> inner) {
+        for (;;) {
+            BatchInner<T>[] a = subscribers;
+            if (a == TERMINATED || a == EMPTY) {
+                return;
+            }
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            BatchInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new BatchInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 批量节点，index 只在 drain() 中修改
+     */
+    static final class Batch {
+
+        final Object[] values;
+
+        int index;
+
+        Batch(Object[] values) {
+            this.values = values;
+        }
+    }
+
+    static final class BatchInner<T> implements Subscription {
+
+        final CoreSubscriber<? super T> actual;
+
+        final BatchMulticastSink<T> parent;
+
+        /**
+         * Long.MIN_VALUE 表示已取消
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<BatchInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(BatchInner.class, "requested");
+
+        BatchInner(CoreSubscriber<? super T> actual, BatchMulticastSink<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                for (;;) {
+                    long r = requested;
+                    if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (REQUESTED.compareAndSet(this, r, u)) {
+                        break;
+                    }
+                }
+                parent.drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (REQUESTED.getAndSet(this, Long.MIN_VALUE) != Long.MIN_VALUE) {
+                parent.remove(this);
+                parent.drain();
+            }
+        }
+
+        boolean isCancelled() {
+            return requested == Long.MIN_VALUE;
+        }
+
+        void produced(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                    return;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - n)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.cn.demo.sinks.many;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * @Description 每个订阅者独立缓冲的多订阅者 Sink
+ *
+ * {@link reactor.core.publisher.SinkManyEmitterProcessor#drain()} 取所有 subscribers 中最小的 requested，
+ * 只要有一个订阅者消费慢，所有订阅者都会被拖慢
+ *
+ * 当前实现
+ * 1、tryEmitNext 只负责把元素放入每个订阅者自己的有界队列，不在发射线程中调用 onNext
+ * 2、每个订阅者绑定一个 {@link Scheduler.Worker}，在自己的 worker 上按自身 requested 消费队列
+ * 3、队列满时按订阅者自己的 {@link OverflowStrategy} 处理，只影响当前订阅者
+ *      DROP_OLDEST 丢弃最早的元素 / DROP_LATEST 丢弃当前元素 / DISCONNECT 以 overflow 错误断开当前订阅者
+ *
+ * 注) 没有订阅者时返回 FAIL_ZERO_SUBSCRIBER (与 directBestEffort 一致)，并发发射返回 FAIL_NON_SERIALIZED
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/18 15:10
+ * @Version V1.0
+ */
+public final class BufferedMulticastSink<T> extends AbstractManySink<T> {
+
+    public enum OverflowStrategy {
+        /**
+         * 丢弃队列中最早的元素
+         */
+        DROP_OLDEST,
+        /**
+         * 丢弃当前发射的元素
+         */
+        DROP_LATEST,
+        /**
+         * 以 overflow 错误断开当前订阅者
+         */
+        DISCONNECT
+    }
+
+    @SuppressWarnings("rawtypes")
+    static final BufferedInner[] EMPTY = new BufferedInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final BufferedInner[] TERMINATED = new BufferedInner[0];
+
+    public static <T> BufferedMulticastSink<T> create(int bufferSize, OverflowStrategy strategy) {
+        return create(bufferSize, strategy, Schedulers.boundedElastic());
+    }
+
+    /**
+     * @Description: 创建 Sink
+     * @author Levi.Ding
+     * @date 2026/10/18 15:18
+     * @param bufferSize : 默认的订阅者缓冲区大小
+     * @param strategy : 默认的溢出策略
+     * @param scheduler : 订阅者消费使用的调度器，每个订阅者一个 worker
+     * @return : com.cn.demo.sinks.many.BufferedMulticastSink<T>
+     */
+    public static <T> BufferedMulticastSink<T> create(int bufferSize, OverflowStrategy strategy, Scheduler scheduler) {
+        return new BufferedMulticastSink<>(bufferSize, strategy, scheduler);
+    }
+
+    final int bufferSize;
+
+    final OverflowStrategy strategy;
+
+    final Scheduler scheduler;
+
+    volatile BufferedInner<T>[] subscribers;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<BufferedMulticastSink, BufferedInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(BufferedMulticastSink.class, BufferedInner[].class, "subscribers");
+
+    volatile int emitting;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<BufferedMulticastSink> EMITTING =
+            AtomicIntegerFieldUpdater.newUpdater(BufferedMulticastSink.class, "emitting");
+
+    volatile boolean done;
+
+    Throwable error;
+
+    BufferedMulticastSink(int bufferSize, OverflowStrategy strategy, Scheduler scheduler) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    /**
+     * @Description: 使用独立的缓冲区大小和溢出策略订阅
+     * @author Levi.Ding
+     * @date 2026/10/18 15:20
+     * @param bufferSize :
+     * @param strategy :
+     * @return : reactor.core.publisher.Flux<T>
+     */
+    public Flux<T> asFlux(int bufferSize, OverflowStrategy strategy) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+        }
+        return new BufferedView<>(this, bufferSize, Objects.requireNonNull(strategy, "strategy"));
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Objects.requireNonNull(t, "t");
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        try {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            BufferedInner<T>[] a = subscribers;
+            if (a.length == 0) {
+                return Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER;
+            }
+            for (BufferedInner<T> inner : a) {
+                inner.offer(t);
+            }
+            return Sinks.EmitResult.OK;
+        }
+        finally {
+            EMITTING.set(this, 0);
+        }
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        return terminate(Objects.requireNonNull(error, "error"));
+    }
+
+    @SuppressWarnings("unchecked")
+    Sinks.EmitResult terminate(@Nullable Throwable e) {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        if (done) {
+            EMITTING.set(this, 0);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        error = e;
+        done = true;
+        EMITTING.set(this, 0);
+        for (BufferedInner<T> inner : SUBSCRIBERS.getAndSet(this, TERMINATED)) {
+            inner.terminate(e);
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return subscribers.length;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.TERMINATED) return done;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.CAPACITY) return bufferSize;
+        if (key == Attr.RUN_ON) return scheduler;
+        return null;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        subscribe(actual, bufferSize, strategy);
+    }
+
+    void subscribe(CoreSubscriber<? super T> actual, int bufferSize, OverflowStrategy strategy) {
+        Objects.requireNonNull(actual, "subscribe");
+        Scheduler.Worker worker;
+        try {
+            worker = scheduler.createWorker();
+        }
+        catch (RejectedExecutionException ree) {
+            Operators.error(actual, ree);
+            return;
+        }
+        BufferedInner<T> inner = new BufferedInner<>(actual, this, bufferSize, strategy, worker);
+        actual.onSubscribe(inner);
+        if (add(inner)) {
+            if (inner.isCancelled()) {
+                remove(inner);
+            }
+        }
+        else {
+            inner.terminate(error);
+        }
+    }
+
+    boolean add(BufferedInner<T> inner) {
+        for (;;) {
+            BufferedInner<T>[] a = subscribers;
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings("unchecked")
+            BufferedInner<T>[] b = new BufferedInner[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(BufferedInner<T> inner) {
+        for (;;) {
+            BufferedInner<T>[] a = subscribers;
+            if (a == TERMINATED || a == EMPTY) {
+                return;
+            }
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            BufferedInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new BufferedInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    static final class BufferedView<T> extends Flux<T> {
+
+        final BufferedMulticastSink<T> parent;
+
+        final int bufferSize;
+
+        final OverflowStrategy strategy;
+
+        BufferedView(BufferedMulticastSink<T> parent, int bufferSize, OverflowStrategy strategy) {
+            this.parent = parent;
+            this.bufferSize = bufferSize;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super T> actual) {
+            parent.subscribe(actual, bufferSize, strategy);
+        }
+    }
+
+    static final class BufferedInner<T> implements Subscription, Runnable {
+
+        final CoreSubscriber<? super T> actual;
+
+        final BufferedMulticastSink<T> parent;
+
+        final int capacity;
+
+        final OverflowStrategy strategy;
+
+        final Scheduler.Worker worker;
+
+        /**
+         * 生产者(DROP_OLDEST)与 worker 都会 poll，使用多消费者安全的队列
+         */
+        final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        volatile int size;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<BufferedInner> SIZE =
+                AtomicIntegerFieldUpdater.newUpdater(BufferedInner.class, "size");
+
+        /**
+         * Long.MIN_VALUE 表示已取消
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<BufferedInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(BufferedInner.class, "requested");
+
+        volatile int wip;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<BufferedInner> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(BufferedInner.class, "wip");
+
+        volatile boolean done;
+
+        /**
+         * 溢出断开，丢弃剩余元素立即下发 error
+         */
+        volatile boolean disconnected;
+
+        Throwable error;
+
+        BufferedInner(CoreSubscriber<? super T> actual, BufferedMulticastSink<T> parent, int capacity,
+                      OverflowStrategy strategy, Scheduler.Worker worker) {
+            this.actual = actual;
+            this.parent = parent;
+            this.capacity = capacity;
+            this.strategy = strategy;
+            this.worker = worker;
+        }
+
+        void offer(T t) {
+            if (done) {
+                Operators.onDiscard(t, actual.currentContext());
+                return;
+            }
+            if (size >= capacity) {
+                switch (strategy) {
+                    case DROP_LATEST:
+                        Operators.onDiscard(t, actual.currentContext());
+                        return;
+                    case DROP_OLDEST:
+                        T old = queue.poll();
+                        if (old != null) {
+                            SIZE.decrementAndGet(this);
+                            Operators.onDiscard(old, actual.currentContext());
+                        }
+                        break;
+                    default:
+                        Operators.onDiscard(t, actual.currentContext());
+                        parent.remove(this);
+                        error = Exceptions.failWithOverflow("Subscriber buffer is full (capacity " + capacity + "), disconnecting slow subscriber");
+                        disconnected = true;
+                        done = true;
+                        schedule();
+                        return;
+                }
+            }
+            queue.offer(t);
+            SIZE.incrementAndGet(this);
+            schedule();
+        }
+
+        void terminate(@Nullable Throwable e) {
+            if (done) {
+                return;
+            }
+            error = e;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                for (;;) {
+                    long r = requested;
+                    if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (REQUESTED.compareAndSet(this, r, u)) {
+                        break;
+                    }
+                }
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (REQUESTED.getAndSet(this, Long.MIN_VALUE) != Long.MIN_VALUE) {
+                parent.remove(this);
+                schedule();
+            }
+        }
+
+        boolean isCancelled() {
+            return requested == Long.MIN_VALUE;
+        }
+
+        void schedule() {
+            if (WIP.getAndIncrement(this) == 0) {
+                try {
+                    worker.schedule(this);
+                }
+                catch (RejectedExecutionException ree) {
+                    parent.remove(this);
+                    queue.clear();
+                    actual.onError(Operators.onRejectedExecution(ree, actual.currentContext()));
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                while (e != r) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+                    boolean d = done;
+                    T v = queue.poll();
+                    boolean empty = v == null;
+                    if (d && empty) {
+                        finish();
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    SIZE.decrementAndGet(this);
+                    actual.onNext(v);
+                    e++;
+                }
+                if (checkTerminated()) {
+                    return;
+                }
+                if (done && queue.isEmpty()) {
+                    finish();
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    produced(e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminated() {
+            if (isCancelled()) {
+                queue.clear();
+                worker.dispose();
+                return true;
+            }
+            if (disconnected) {
+                queue.clear();
+                finish();
+                return true;
+            }
+            return false;
+        }
+
+        void finish() {
+            Throwable e = error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+            worker.dispose();
+        }
+
+        void produced(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                    return;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - n)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.cn.demo.sinks.many;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * @Description 按 key 合并的多订阅者 Sink
+ *
+ * 行情、状态类数据同一个 key 会持续更新，落后的订阅者只需要每个 key 的最新值，不需要中间的积压
+ *
+ * 当前实现
+ * 1、每个订阅者持有一个 ConcurrentHashMap(key -> 最新值) 以及一个脏 key 队列
+ * 2、发射时 put 最新值，只有该 key 之前不在 map 中时才把 key 放入脏队列；被覆盖的旧值交给 onDiscard 钩子
+ * 3、订阅者有请求时从脏队列取出 key，remove 出最新值下发；消费跟得上的订阅者仍然能收到每一次更新
+ *
+ * 注) 每个订阅者的内存只和 key 的数量有关，和更新频率无关；同一订阅者下 key 按首次变脏的顺序下发；
+ *     可以多线程并发发射，没有订阅者时返回 FAIL_ZERO_SUBSCRIBER；
+ *     发射期间计入 emitters，终止后订阅者要等 emitters 归零才结束，保证返回 OK 的元素不会在终止时丢失
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/19 18:05
+ * @Version V1.0
+ */
+public final class ConflatingKeyedSink<K, T> extends AbstractManySink<T> {
+
+    @SuppressWarnings("rawtypes")
+    static final ConflatingInner[] EMPTY = new ConflatingInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final ConflatingInner[] TERMINATED = new ConflatingInner[0];
+
+    /**
+     * 不命名为 create: 单参数 lambda 会与继承的 Flux.create(Consumer) 产生重载歧义
+     *
+     * @param keyMapper 从元素中提取合并的 key
+     */
+    public static <K, T> ConflatingKeyedSink<K, T> keyedBy(Function<? super T, ? extends K> keyMapper) {
+        return new ConflatingKeyedSink<>(Objects.requireNonNull(keyMapper, "keyMapper"));
+    }
+
+    final Function<? super T, ? extends K> keyMapper;
+
+    volatile ConflatingInner<K, T>[] subscribers;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<ConflatingKeyedSink, ConflatingInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(ConflatingKeyedSink.class, ConflatingInner[].class, "subscribers");
+
+    /**
+     * 0 运行中, 1 正在写入 error, 2 已终止(error 可见)
+     */
+    volatile int done;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<ConflatingKeyedSink> DONE =
+            AtomicIntegerFieldUpdater.newUpdater(ConflatingKeyedSink.class, "done");
+
+    volatile Throwable error;
+
+    /**
+     * 已通过 done 检查、尚未写入完成的发射数
+     */
+    volatile int emitters;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<ConflatingKeyedSink> EMITTERS =
+            AtomicIntegerFieldUpdater.newUpdater(ConflatingKeyedSink.class, "emitters");
+
+    final LongAdder conflated = new LongAdder();
+
+    ConflatingKeyedSink(Function<? super T, ? extends K> keyMapper) {
+        this.keyMapper = keyMapper;
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Objects.requireNonNull(t, "t");
+        K key = Objects.requireNonNull(keyMapper.apply(t), "keyMapper returned a null key");
+        EMITTERS.incrementAndGet(this);
+        if (done != 0) {
+            EMITTERS.decrementAndGet(this);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        ConflatingInner<K, T>[] a = subscribers;
+        if (a.length == 0) {
+            EMITTERS.decrementAndGet(this);
+            return a == TERMINATED ? Sinks.EmitResult.FAIL_TERMINATED : Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER;
+        }
+        for (ConflatingInner<K, T> inner : a) {
+            inner.offer(key, t);
+        }
+        EMITTERS.decrementAndGet(this);
+        //终止后 a 中的订阅者已被 terminate 移出，仍由这里的 drain 在 emitters 归零后结束
+        for (ConflatingInner<K, T> inner : a) {
+            inner.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        if (!DONE.compareAndSet(this, 0, 2)) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        terminate();
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        Objects.requireNonNull(error, "error");
+        if (!DONE.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        this.error = error;
+        done = 2;
+        terminate();
+        return Sinks.EmitResult.OK;
+    }
+
+    /**
+     * 所有订阅者累计被覆盖(跳过)的更新数量
+     */
+    public long conflatedCount() {
+        return conflated.sum();
+    }
+
+    boolean isDone() {
+        return done == 2 && emitters == 0;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return subscribers.length;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.TERMINATED) return done == 2;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.BUFFERED) {
+            long size = 0L;
+            for (ConflatingInner<K, T> inner : subscribers) {
+                size += inner.latest.size();
+            }
+            return (int) Math.min(size, Integer.MAX_VALUE);
+        }
+        return null;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        ConflatingInner<K, T> inner = new ConflatingInner<>(actual, this);
+        actual.onSubscribe(inner);
+        if (add(inner)) {
+            if (inner.isCancelled()) {
+                remove(inner);
+            }
+        }
+        else {
+            Throwable e = error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void terminate() {
+        for (ConflatingInner<K, T> inner : SUBSCRIBERS.getAndSet(this, TERMINATED)) {
+            inner.drain();
+        }
+    }
+
+    boolean add(ConflatingInner<K, T> inner) {
+        for (;;) {
+            ConflatingInner<K, T>[] a = subscribers;
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings("unchecked")
+            ConflatingInner<K, T>[] b = new ConflatingInner[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(ConflatingInner<K, T> inner) {
+        for (;;) {
+            ConflatingInner<K, T>[] a = subscribers;
+            if (a == TERMINATED || a == EMPTY) {
+                return;
+            }
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            ConflatingInner<K, T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new ConflatingInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    static final class ConflatingInner<K, T> implements Subscription {
+
+        final CoreSubscriber<? super T> actual;
+
+        final ConflatingKeyedSink<K, T> parent;
+
+        /**
+         * key -> 尚未下发的最新值
+         */
+        final ConcurrentHashMap<K, T> latest = new ConcurrentHashMap<>();
+
+        /**
+         * 存在于 latest 中的 key，每个 key 最多出现一次
+         */
+        final Queue<K> dirty = Queues.<K>unboundedMultiproducer().get();
+
+        /**
+         * Long.MIN_VALUE 表示已取消
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<ConflatingInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ConflatingInner.class, "requested");
+
+        volatile int wip;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<ConflatingInner> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(ConflatingInner.class, "wip");
+
+        ConflatingInner(CoreSubscriber<? super T> actual, ConflatingKeyedSink<K, T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        void offer(K key, T value) {
+            T previous = latest.put(key, value);
+            if (previous == null) {
+                dirty.offer(key);
+            }
+            else {
+                parent.conflated.increment();
+                Operators.onDiscard(previous, actual.currentContext());
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                for (;;) {
+                    long r = requested;
+                    if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (REQUESTED.compareAndSet(this, r, u)) {
+                        break;
+                    }
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (REQUESTED.getAndSet(this, Long.MIN_VALUE) != Long.MIN_VALUE) {
+                parent.remove(this);
+                if (WIP.getAndIncrement(this) == 0) {
+                    clear();
+                }
+            }
+        }
+
+        boolean isCancelled() {
+            return requested == Long.MIN_VALUE;
+        }
+
+        void clear() {
+            dirty.clear();
+            Operators.onDiscardMultiple(latest.values().iterator(), true, actual.currentContext());
+            latest.clear();
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            ConflatingKeyedSink<K, T> p = parent;
+            int missed = 1;
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                while (e != r) {
+                    if (isCancelled()) {
+                        clear();
+                        return;
+                    }
+                    boolean d = p.isDone();
+                    K key = dirty.poll();
+                    if (key == null) {
+                        if (d) {
+                            finish();
+                            return;
+                        }
+                        break;
+                    }
+                    T v = latest.remove(key);
+                    if (v == null) {
+                        continue;
+                    }
+                    actual.onNext(v);
+                    e++;
+                }
+                if (isCancelled()) {
+                    clear();
+                    return;
+                }
+                if (p.isDone() && dirty.isEmpty()) {
+                    finish();
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    produced(e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void produced(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                    return;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - n)) {
+                    return;
+                }
+            }
+        }
+
+        void finish() {
+            Throwable e = parent.error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package com.cn.demo.sinks.many;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * @Description 按生产者线程分片的多订阅者 Sink
+ *
+ * Sinks.many().multicast().onBackpressureBuffer() 所有生产者都要竞争 SinkManySerialized 的同一个 CAS，
+ * {@link BatchMulticastSink} 虽然不会 FAIL_NON_SERIALIZED，但仍然共享同一个多生产者队列的尾指针
+ *
+ * 当前实现
+ * 1、每个生产者线程第一次发射时注册一条自己的 SPSC lane (ThreadLocal)，发射只写自己的 lane，生产者之间没有共享写入的字段
+ * 2、drain 由空闲标记 draining 控制，生产者写入后只读取一次 draining，为 0 时才尝试 CAS 成为 drainer
+ * 3、drainer 轮询所有 lane，每条 lane 每轮最多取 fairBatch 个元素，保证公平；单条 lane 先进先出，同一生产者的顺序不变
+ * 4、下发与 {@link BatchMulticastSink} 一致，按所有 subscribers 中最小的 requested 下发
+ *
+ * 注) 以线程而非 CPU 核为分片单位(JVM 无法获取当前核)；lane 满时返回 FAIL_OVERFLOW；
+ *     已结束线程的空 lane 在新线程注册时清理；没有订阅者时数据缓存在 lane 中，直到第一个订阅者订阅
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/19 16:20
+ * @Version V1.0
+ */
+public final class ShardedMulticastSink<T> extends AbstractManySink<T> {
+
+    @SuppressWarnings("rawtypes")
+    static final ShardedInner[] EMPTY = new ShardedInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final ShardedInner[] TERMINATED = new ShardedInner[0];
+
+    static final Lane[] NO_LANES = new Lane[0];
+
+    public static <T> ShardedMulticastSink<T> create() {
+        return create(Queues.SMALL_BUFFER_SIZE, 16);
+    }
+
+    /**
+     * @param laneSize 单个生产者 lane 的容量，向上取整为 2 的幂
+     * @param fairBatch drainer 每轮从单个 lane 最多取出的元素数量
+     */
+    public static <T> ShardedMulticastSink<T> create(int laneSize, int fairBatch) {
+        if (laneSize <= 0) {
+            throw new IllegalArgumentException("laneSize > 0 required but it was " + laneSize);
+        }
+        if (fairBatch <= 0) {
+            throw new IllegalArgumentException("fairBatch > 0 required but it was " + fairBatch);
+        }
+        return new ShardedMulticastSink<>(Queues.ceilingNextPowerOfTwo(laneSize), fairBatch);
+    }
+
+    final int laneSize;
+
+    final int fairBatch;
+
+    final ThreadLocal<Lane> lane = new ThreadLocal<>();
+
+    volatile Lane[] lanes;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<ShardedMulticastSink, Lane[]> LANES =
+            AtomicReferenceFieldUpdater.newUpdater(ShardedMulticastSink.class, Lane[].class, "lanes");
+
+    volatile ShardedInner<T>[] subscribers;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<ShardedMulticastSink, ShardedInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(ShardedMulticastSink.class, ShardedInner[].class, "subscribers");
+
+    /**
+     * 1 表示已有线程在 drain
+     */
+    volatile int draining;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<ShardedMulticastSink> DRAINING =
+            AtomicIntegerFieldUpdater.newUpdater(ShardedMulticastSink.class, "draining");
+
+    /**
+     * 0 运行中, 1 正在写入 error, 2 已终止(error 可见)
+     */
+    volatile int done;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<ShardedMulticastSink> DONE =
+            AtomicIntegerFieldUpdater.newUpdater(ShardedMulticastSink.class, "done");
+
+    volatile Throwable error;
+
+    /**
+     * 轮询起始 lane，只在 drain 中访问
+     */
+    int cursor;
+
+    ShardedMulticastSink(int laneSize, int fairBatch) {
+        this.laneSize = laneSize;
+        this.fairBatch = fairBatch;
+        LANES.lazySet(this, NO_LANES);
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Objects.requireNonNull(t, "t");
+        if (done != 0) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        Lane l = lane.get();
+        if (l == null) {
+            l = register();
+        }
+        //先标记正在发射再检查终止，与 drainer 的 isDone() 配合，终止后不会再有元素留在 lane 中
+        l.emitting = 1;
+        Sinks.EmitResult result;
+        if (done != 0) {
+            result = Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        else if (!l.offer(t)) {
+            result = Sinks.EmitResult.FAIL_OVERFLOW;
+        }
+        else {
+            result = Sinks.EmitResult.OK;
+        }
+        l.emitting = 0;
+        signal();
+        return result;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        if (!DONE.compareAndSet(this, 0, 2)) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        signal();
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        Objects.requireNonNull(error, "error");
+        if (!DONE.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        this.error = error;
+        done = 2;
+        signal();
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return subscribers.length;
+    }
+
+    /**
+     * 当前注册的生产者 lane 数量
+     */
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.TERMINATED) return subscribers == TERMINATED;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.BUFFERED) {
+            long size = 0L;
+            for (Lane l : lanes) {
+                size += l.size();
+            }
+            return (int) Math.min(size, Integer.MAX_VALUE);
+        }
+        if (key == Attr.CAPACITY) return laneSize;
+        return null;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        ShardedInner<T> inner = new ShardedInner<>(actual, this);
+        actual.onSubscribe(inner);
+        if (add(inner)) {
+            if (inner.isCancelled()) {
+                remove(inner);
+            }
+            signal();
+        }
+        else {
+            Throwable e = error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+    }
+
+    /**
+     * @Description: 注册当前线程的 lane，同时清理已结束线程的空 lane
+     * @author Levi.Ding
+     * @date 2026/10/19 16:35
+     * @return : com.cn.demo.sinks.many.ShardedMulticastSink.Lane
+     */
+    Lane register() {
+        Lane l = new Lane(laneSize, Thread.currentThread());
+        for (;;) {
+            Lane[] a = lanes;
+            int alive = 0;
+            for (Lane x : a) {
+                if (x.owner.isAlive() || !x.isEmpty()) {
+                    alive++;
+                }
+            }
+            Lane[] b = new Lane[alive + 1];
+            int j = 0;
+            for (Lane x : a) {
+                if (x.owner.isAlive() || !x.isEmpty()) {
+                    b[j++] = x;
+                }
+            }
+            b[j] = l;
+            if (LANES.compareAndSet(this, a, b)) {
+                lane.set(l);
+                return l;
+            }
+        }
+    }
+
+    /**
+     * @Description: 写入/请求/订阅后调用，draining 为 0 时尝试成为 drainer
+     *
+     * 生产者先 volatile 写 lane.producerIndex 再读 draining，drainer 先 volatile 写 draining = 0 再检查 lane，
+     * 两者之间至少有一方能看到对方的写入，不会出现数据留在 lane 中却没有 drainer 的情况
+     *
+     * @author Levi.Ding
+     * @date 2026/10/19 16:40
+     * @return : void
+     */
+    void signal() {
+        if (draining == 0 && DRAINING.compareAndSet(this, 0, 1)) {
+            for (;;) {
+                drainLanes();
+                draining = 0;
+                if (!hasWork() || !DRAINING.compareAndSet(this, 0, 1)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    boolean hasWork() {
+        ShardedInner<T>[] a = subscribers;
+        if (a == TERMINATED) {
+            return false;
+        }
+        boolean d = isDone();
+        boolean empty = isEmpty();
+        if (d && empty) {
+            return true;
+        }
+        return !empty && a.length != 0 && minRequested(a) != 0L;
+    }
+
+    void drainLanes() {
+        ShardedInner<T>[] a = subscribers;
+        if (a == TERMINATED) {
+            return;
+        }
+        if (a.length == 0) {
+            if (isDone() && isEmpty()) {
+                terminate();
+            }
+            return;
+        }
+        long r = minRequested(a);
+        long e = 0L;
+        for (;;) {
+            boolean d = isDone();
+            Lane[] ls = lanes;
+            int n = ls.length;
+            boolean progress = false;
+            for (int k = 0; k < n && e != r; k++) {
+                Lane l = ls[(cursor + k) % n];
+                int taken = 0;
+                while (taken < fairBatch && e != r) {
+                    @SuppressWarnings("unchecked")
+                    T v = (T) l.poll();
+                    if (v == null) {
+                        break;
+                    }
+                    for (ShardedInner<T> inner : a) {
+                        inner.actual.onNext(v);
+                    }
+                    taken++;
+                    e++;
+                }
+                if (taken != 0) {
+                    progress = true;
+                }
+            }
+            if (n != 0) {
+                cursor = (cursor + 1) % n;
+            }
+            if (!progress) {
+                if (d && isEmpty()) {
+                    terminate();
+                    return;
+                }
+                break;
+            }
+            if (e == r) {
+                if (isDone() && isEmpty()) {
+                    terminate();
+                    return;
+                }
+                break;
+            }
+        }
+        if (e != 0L && r != Long.MAX_VALUE) {
+            for (ShardedInner<T> inner : a) {
+                inner.produced(e);
+            }
+        }
+    }
+
+    static long minRequested(ShardedInner<?>[] a) {
+        long min = Long.MAX_VALUE;
+        for (ShardedInner<?> inner : a) {
+            long r = inner.requested;
+            if (r >= 0L) {
+                min = Math.min(min, r);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * 已终止并且没有生产者处于"已检查终止、尚未写完"的状态，之后读取到的 lane 即为最终内容；
+     * 生产者先写 emitting 再读 done，这里先读 done 再读 lanes/emitting，两者至少有一方能看到对方的写入
+     */
+    boolean isDone() {
+        if (done != 2) {
+            return false;
+        }
+        for (Lane l : lanes) {
+            if (l.emitting != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        for (Lane l : lanes) {
+            if (!l.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    void terminate() {
+        Throwable e = error;
+        for (ShardedInner<T> inner : SUBSCRIBERS.getAndSet(this, TERMINATED)) {
+            if (e != null) {
+                inner.actual.onError(e);
+            }
+            else {
+                inner.actual.onComplete();
+            }
+        }
+    }
+
+    boolean add(ShardedInner<T> inner) {
+        for (;;) {
+            ShardedInner<T>[] a = subscribers;
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings("unchecked")
+            ShardedInner<T>[] b = new ShardedInner[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(ShardedInner<T> inner) {
+        for (;;) {
+            ShardedInner<T>[] a = subscribers;
+            if (a == TERMINATED || a == EMPTY) {
+                return;
+            }
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            ShardedInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new ShardedInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * lane 生产者侧字段，与消费者侧字段之间用 {@link LanePad} 隔开，避免伪共享
+     */
+    abstract static class LaneProducer {
+
+        volatile long producerIndex;
+
+        /**
+         * 1 表示 owner 正在发射，只由 owner 写入
+         */
+        volatile int emitting;
+
+        /**
+         * 生产者缓存的 consumerIndex，只有看起来满了才重新读取
+         */
+        long consumerCache;
+    }
+
+    abstract static class LanePad extends LaneProducer {
+
+        long p0, p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    /**
+     * 单生产者(owner 线程)单消费者(drainer)的环形队列
+     */
+    static final class Lane extends LanePad {
+
+        volatile long consumerIndex;
+        static final AtomicLongFieldUpdater<Lane> CONSUMER_INDEX =
+                AtomicLongFieldUpdater.newUpdater(Lane.class, "consumerIndex");
+
+        final Object[] array;
+
+        final int mask;
+
+        final Thread owner;
+
+        Lane(int capacity, Thread owner) {
+            this.array = new Object[capacity];
+            this.mask = capacity - 1;
+            this.owner = owner;
+        }
+
+        boolean offer(Object v) {
+            long p = producerIndex;
+            if (p - consumerCache > mask) {
+                consumerCache = consumerIndex;
+                if (p - consumerCache > mask) {
+                    return false;
+                }
+            }
+            array[(int) p & mask] = v;
+            producerIndex = p + 1;
+            return true;
+        }
+
+        @Nullable
+        Object poll() {
+            long c = consumerIndex;
+            if (c == producerIndex) {
+                return null;
+            }
+            int offset = (int) c & mask;
+            Object v = array[offset];
+            array[offset] = null;
+            CONSUMER_INDEX.lazySet(this, c + 1);
+            return v;
+        }
+
+        boolean isEmpty() {
+            return consumerIndex == producerIndex;
+        }
+
+        long size() {
+            return producerIndex - consumerIndex;
+        }
+    }
+
+    static final class ShardedInner<T> implements Subscription {
+
+        final CoreSubscriber<? super T> actual;
+
+        final ShardedMulticastSink<T> parent;
+
+        /**
+         * Long.MIN_VALUE 表示已取消
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<ShardedInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ShardedInner.class, "requested");
+
+        ShardedInner(CoreSubscriber<? super T> actual, ShardedMulticastSink<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                for (;;) {
+                    long r = requested;
+                    if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (REQUESTED.compareAndSet(this, r, u)) {
+                        break;
+                    }
+                }
+                parent.signal();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (REQUESTED.getAndSet(this, Long.MIN_VALUE) != Long.MIN_VALUE) {
+                parent.remove(this);
+                parent.signal();
+            }
+        }
+
+        boolean isCancelled() {
+            return requested == Long.MIN_VALUE;
+        }
+
+        void produced(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                    return;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - n)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.cn.demo.sinks.metrics;
+
+import com.cn.demo.sinks.many.AbstractManySink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description 带 Micrometer 指标的 Sinks.Many 包装
+ *
+ * 代替 CustomerSinks#createThread 中每次发射 JSON.toJSONString(emitResult) + 毫秒计时的日志方式
+ *
+ * 指标(均带 name 及自定义 tags)
+ * 1、sink.emit                  Counter，按 signal(onNext/onComplete/onError) + result(EmitResult) 计数，emitNext 重试的每一次尝试都会计入
+ * 2、sink.emit.latency          Timer，tryEmitNext 耗时，每次发射以 1/latencySampling 的概率随机采样，避免每次发射都调用两次 nanoTime
+ * 3、sink.buffered              Gauge，被包装 Sink 的 {@link Scannable.Attr#BUFFERED}
+ * 4、sink.subscribers           Gauge，当前订阅者数量
+ * 5、sink.subscriber.demand     Gauge，每个订阅者已请求但尚未收到的数量 (无界请求为 +Inf)
+ * 6、sink.subscriber.lag        Gauge，订阅后 Sink 成功发射的数量 - 该订阅者已收到的数量
+ *
+ * 注) 订阅者相关 Gauge 以 subscriber 序号为 tag，订阅终止或取消后从 registry 中移除；
+ *     lag 对 replay 类 Sink 没有意义 (订阅时会补发历史数据)
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/20 10:15
+ * @Version V1.0
+ */
+public final class InstrumentedSink<T> extends AbstractManySink<T> {
+
+    public static <T> Builder<T> builder(Sinks.Many<T> delegate, MeterRegistry registry) {
+        return new Builder<>(delegate, registry);
+    }
+
+    static final String[] SIGNALS = {"onNext", "onComplete", "onError"};
+
+    static final int ON_NEXT = 0;
+
+    static final int ON_COMPLETE = 1;
+
+    static final int ON_ERROR = 2;
+
+    final Sinks.Many<T> delegate;
+
+    final MeterRegistry registry;
+
+    final Tags tags;
+
+    /**
+     * [signal][EmitResult.ordinal()]
+     */
+    final Counter[][] results;
+
+    final Timer latency;
+
+    /**
+     * 采样掩码，latencySampling 为 2 的幂
+     */
+    final int sampleMask;
+
+    /**
+     * 成功发射的 onNext 数量，用于计算订阅者 lag
+     */
+    final LongAdder emitted = new LongAdder();
+
+    final AtomicLong subscriberIds = new AtomicLong();
+
+    InstrumentedSink(Builder<T> builder) {
+        this.delegate = builder.delegate;
+        this.registry = builder.registry;
+        this.tags = Tags.of(builder.tags).and("name", builder.name);
+        this.sampleMask = builder.latencySampling - 1;
+
+        Sinks.EmitResult[] values = Sinks.EmitResult.values();
+        this.results = new Counter[SIGNALS.length][values.length];
+        for (int s = 0; s < SIGNALS.length; s++) {
+            for (Sinks.EmitResult r : values) {
+                results[s][r.ordinal()] = Counter.builder("sink.emit")
+                        .tags(tags)
+                        .tag("signal", SIGNALS[s])
+                        .tag("result", r.name())
+                        .register(registry);
+            }
+        }
+        this.latency = Timer.builder("sink.emit.latency")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("sink.buffered", delegate, d -> {
+                    Integer buffered = d.scan(Attr.BUFFERED);
+                    return buffered == null ? Double.NaN : buffered;
+                })
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("sink.subscribers", delegate, Sinks.Many::currentSubscriberCount)
+                .tags(tags)
+                .register(registry);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Sinks.EmitResult result;
+        if ((ThreadLocalRandom.current().nextInt() & sampleMask) == 0) {
+            long start = System.nanoTime();
+            result = delegate.tryEmitNext(t);
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        else {
+            result = delegate.tryEmitNext(t);
+        }
+        if (result == Sinks.EmitResult.OK) {
+            emitted.increment();
+        }
+        results[ON_NEXT][result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        Sinks.EmitResult result = delegate.tryEmitComplete();
+        results[ON_COMPLETE][result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        Sinks.EmitResult result = delegate.tryEmitError(error);
+        results[ON_ERROR][result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return delegate.currentSubscriberCount();
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.PARENT) return delegate;
+        return delegate.scanUnsafe(key);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        delegate.asFlux().subscribe(new MeteredSubscriber<>(actual, this));
+    }
+
+    static final class MeteredSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+
+        final CoreSubscriber<? super T> actual;
+
+        final InstrumentedSink<T> parent;
+
+        final long baseline;
+
+        Subscription s;
+
+        /**
+         * 累计请求数量，Long.MAX_VALUE 表示无界
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<MeteredSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(MeteredSubscriber.class, "requested");
+
+        /**
+         * 累计收到的数量，只在 onNext 中写入
+         */
+        volatile long delivered;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<MeteredSubscriber> DELIVERED =
+                AtomicLongFieldUpdater.newUpdater(MeteredSubscriber.class, "delivered");
+
+        volatile Gauge[] registered;
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<MeteredSubscriber, Gauge[]> REGISTERED =
+                AtomicReferenceFieldUpdater.newUpdater(MeteredSubscriber.class, Gauge[].class, "registered");
+
+        MeteredSubscriber(CoreSubscriber<? super T> actual, InstrumentedSink<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+            this.baseline = parent.emitted.sum();
+            Tags tags = parent.tags.and(Tag.of("subscriber", String.valueOf(parent.subscriberIds.incrementAndGet())));
+            Gauge demand = Gauge.builder("sink.subscriber.demand", this, MeteredSubscriber::outstanding)
+                    .tags(tags)
+                    .register(parent.registry);
+            Gauge lag = Gauge.builder("sink.subscriber.lag", this, MeteredSubscriber::lag)
+                    .tags(tags)
+                    .register(parent.registry);
+            REGISTERED.lazySet(this, new Gauge[]{demand, lag});
+        }
+
+        double outstanding() {
+            long r = requested;
+            if (r == Long.MAX_VALUE) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return r - delivered;
+        }
+
+        double lag() {
+            return parent.emitted.sum() - baseline - delivered;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            DELIVERED.lazySet(this, delivered + 1);
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            unregister();
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            unregister();
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                s.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            unregister();
+            s.cancel();
+        }
+
+        void unregister() {
+            Gauge[] gauges = REGISTERED.getAndSet(this, null);
+            if (gauges != null) {
+                for (Gauge g : gauges) {
+                    parent.registry.remove(g);
+                }
+            }
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return s;
+            if (key == Attr.ACTUAL) return actual;
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+            if (key == Attr.TERMINATED || key == Attr.CANCELLED) return registered == null;
+            return null;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        final Sinks.Many<T> delegate;
+
+        final MeterRegistry registry;
+
+        String name = "sink";
+
+        Iterable<Tag> tags = Tags.empty();
+
+        int latencySampling = 16;
+
+        Builder(Sinks.Many<T> delegate, MeterRegistry registry) {
+            this.delegate = Objects.requireNonNull(delegate, "delegate");
+            this.registry = Objects.requireNonNull(registry, "registry");
+        }
+
+        /**
+         * name tag，区分同一 registry 中的多个 Sink
+         */
+        public Builder<T> name(String name) {
+            this.name = Objects.requireNonNull(name, "name");
+            return this;
+        }
+
+        public Builder<T> tags(Iterable<Tag> tags) {
+            this.tags = Objects.requireNonNull(tags, "tags");
+            return this;
+        }
+
+        /**
+         * 每次 tryEmitNext 以 1/latencySampling 的概率记录耗时 (ThreadLocalRandom，多线程发射时没有共享计数器)，
+         * 向上取整为 2 的幂，1 表示每次都记录，默认 16
+         */
+        public Builder<T> latencySampling(int latencySampling) {
+            if (latencySampling <= 0) {
+                throw new IllegalArgumentException("latencySampling > 0 required but it was " + latencySampling);
+            }
+            this.latencySampling = Queues.ceilingNextPowerOfTwo(latencySampling);
+            return this;
+        }
+
+        public InstrumentedSink<T> build() {
+            return new InstrumentedSink<>(this);
+        }
+    }
+}
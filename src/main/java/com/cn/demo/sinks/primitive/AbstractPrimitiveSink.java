@@ -0,0 +1,337 @@
+package com.cn.demo.sinks.primitive;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * @Description 基本类型 Sink 基类
+ *
+ * 单订阅者(unicast)，元素保存在子类的 long[]/int[] 环形缓冲区中，发射和消费路径都不装箱；
+ * 生产者与消费者通过 producerIndex/consumerIndex 两个序号协调，缓冲区满时返回 FAIL_OVERFLOW
+ *
+ * 子类负责 tryEmitNext 写入槽位以及 {@link #deliver(long)} 把槽位中的值交给订阅者，
+ * 完成/异常、请求、取消、drain 循环由基类统一处理
+ *
+ * 注) 与 {@link com.cn.demo.sinks.many.AbstractManySink} 一致，并发发射返回 FAIL_NON_SERIALIZED
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/19 14:10
+ * @Version V1.0
+ */
+public abstract class AbstractPrimitiveSink implements Subscription, Disposable, Scannable {
+
+    /**
+     * 基本类型订阅者的公共部分，onNext 由 {@link LongSink.LongSubscriber}/{@link IntSink.IntSubscriber} 定义
+     */
+    public interface PrimitiveSubscriber {
+
+        void onSubscribe(Subscription s);
+
+        void onError(Throwable t);
+
+        void onComplete();
+    }
+
+    final int mask;
+
+    volatile long producerIndex;
+    static final AtomicLongFieldUpdater<AbstractPrimitiveSink> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(AbstractPrimitiveSink.class, "producerIndex");
+
+    volatile long consumerIndex;
+    static final AtomicLongFieldUpdater<AbstractPrimitiveSink> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(AbstractPrimitiveSink.class, "consumerIndex");
+
+    volatile long requested;
+    static final AtomicLongFieldUpdater<AbstractPrimitiveSink> REQUESTED =
+            AtomicLongFieldUpdater.newUpdater(AbstractPrimitiveSink.class, "requested");
+
+    volatile int emitting;
+    static final AtomicIntegerFieldUpdater<AbstractPrimitiveSink> EMITTING =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractPrimitiveSink.class, "emitting");
+
+    volatile int wip;
+    static final AtomicIntegerFieldUpdater<AbstractPrimitiveSink> WIP =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractPrimitiveSink.class, "wip");
+
+    volatile int once;
+    static final AtomicIntegerFieldUpdater<AbstractPrimitiveSink> ONCE =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractPrimitiveSink.class, "once");
+
+    volatile PrimitiveSubscriber actual;
+
+    volatile boolean done;
+
+    volatile boolean cancelled;
+
+    Throwable error;
+
+    AbstractPrimitiveSink(int capacity) {
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @Description: 把 index 对应槽位的值交给订阅者
+     * @author Levi.Ding
+     * @date 2026/10/19 14:20
+     * @param index : 消费序号
+     * @return : void
+     */
+    abstract void deliver(long index);
+
+    /**
+     * @Description: 获取发射权并检查剩余容量，返回 null 表示可以写入 producerIndex 对应的槽位，写入后需调用 {@link #publish(long)}
+     * @author Levi.Ding
+     * @date 2026/10/19 14:22
+     * @return : reactor.core.publisher.Sinks.EmitResult
+     */
+    @Nullable
+    final Sinks.EmitResult enter() {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (cancelled) {
+            return Sinks.EmitResult.FAIL_CANCELLED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        if (done) {
+            EMITTING.set(this, 0);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (producerIndex - consumerIndex > mask) {
+            EMITTING.set(this, 0);
+            return Sinks.EmitResult.FAIL_OVERFLOW;
+        }
+        return null;
+    }
+
+    final Sinks.EmitResult publish(long index) {
+        PRODUCER_INDEX.lazySet(this, index + 1);
+        EMITTING.set(this, 0);
+        drain();
+        return Sinks.EmitResult.OK;
+    }
+
+    public final Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    public final Sinks.EmitResult tryEmitError(Throwable error) {
+        return terminate(Objects.requireNonNull(error, "error"));
+    }
+
+    Sinks.EmitResult terminate(@Nullable Throwable e) {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (cancelled) {
+            return Sinks.EmitResult.FAIL_CANCELLED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        if (done) {
+            EMITTING.set(this, 0);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        error = e;
+        done = true;
+        EMITTING.set(this, 0);
+        drain();
+        return Sinks.EmitResult.OK;
+    }
+
+    public final void emitComplete(Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitComplete();
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_COMPLETE, emitResult)) {
+                continue;
+            }
+            if (emitResult == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                throw new Sinks.EmissionException(emitResult,
+                        "Spec. Rule 1.3 - onSubscribe, onNext, onError and onComplete signaled to a Subscriber MUST be signaled serially.");
+            }
+            return;
+        }
+    }
+
+    public final void emitError(Throwable error, Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitError(error);
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_ERROR, emitResult)) {
+                continue;
+            }
+            switch (emitResult) {
+                case FAIL_TERMINATED:
+                    Operators.onErrorDropped(error, Context.empty());
+                    return;
+                case FAIL_NON_SERIALIZED:
+                    throw new Sinks.EmissionException(emitResult,
+                            "Spec. Rule 1.3 - onSubscribe, onNext, onError and onComplete signaled to a Subscriber MUST be signaled serially.");
+                default:
+                    return;
+            }
+        }
+    }
+
+    /**
+     * @Description: emitNext 重试结束后的处理，基本类型无法交给 onDiscard/onNextDropped 钩子，直接丢弃
+     * @author Levi.Ding
+     * @date 2026/10/19 14:30
+     * @param emitResult :
+     * @param failureHandler :
+     * @return : void
+     */
+    final void onNextFailed(Sinks.EmitResult emitResult, Sinks.EmitFailureHandler failureHandler) {
+        switch (emitResult) {
+            case FAIL_OVERFLOW:
+                emitError(Exceptions.failWithOverflow("Backpressure overflow during Sinks.Many#emitNext"), failureHandler);
+                return;
+            case FAIL_ZERO_SUBSCRIBER:
+            case FAIL_CANCELLED:
+            case FAIL_TERMINATED:
+                return;
+            case FAIL_NON_SERIALIZED:
+                throw new Sinks.EmissionException(emitResult,
+                        "Spec. Rule 1.3 - onSubscribe, onNext, onError and onComplete signaled to a Subscriber MUST be signaled serially.");
+            default:
+                throw new Sinks.EmissionException(emitResult, "Unknown emitResult value");
+        }
+    }
+
+    /**
+     * @Description: 订阅，只允许一个订阅者
+     * @author Levi.Ding
+     * @date 2026/10/19 14:35
+     * @param s :
+     * @return : boolean 是否订阅成功，子类据此保存带类型的订阅者引用
+     */
+    final boolean subscribe0(PrimitiveSubscriber s) {
+        Objects.requireNonNull(s, "subscribe");
+        if (once != 0 || !ONCE.compareAndSet(this, 0, 1)) {
+            s.onSubscribe(Operators.emptySubscription());
+            s.onError(new IllegalStateException("primitive sinks only allow a single Subscriber"));
+            return false;
+        }
+        return true;
+    }
+
+    final void onSubscribed(PrimitiveSubscriber s) {
+        s.onSubscribe(this);
+        actual = s;
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (Operators.validate(n)) {
+            Operators.addCap(REQUESTED, this, n);
+            drain();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public void dispose() {
+        cancel();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return cancelled || done;
+    }
+
+    void drain() {
+        if (WIP.getAndIncrement(this) != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            PrimitiveSubscriber a = actual;
+            if (a != null) {
+                long r = requested;
+                long c = consumerIndex;
+                long e = 0L;
+                while (e != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    boolean d = done;
+                    if (c == producerIndex) {
+                        if (d) {
+                            finish(a);
+                            return;
+                        }
+                        break;
+                    }
+                    deliver(c);
+                    CONSUMER_INDEX.lazySet(this, ++c);
+                    e++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (done && c == producerIndex) {
+                    finish(a);
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+            }
+            missed = WIP.addAndGet(this, -missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    void finish(PrimitiveSubscriber a) {
+        Throwable e = error;
+        if (e != null) {
+            a.onError(e);
+        }
+        else {
+            a.onComplete();
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED) return done;
+        if (key == Attr.CANCELLED) return cancelled;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.BUFFERED) return (int) (producerIndex - consumerIndex);
+        if (key == Attr.CAPACITY) return capacity();
+        if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+        return null;
+    }
+}
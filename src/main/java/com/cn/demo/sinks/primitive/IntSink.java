@@ -0,0 +1,200 @@
+package com.cn.demo.sinks.primitive;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * @Description int 类型 Sink
+ *
+ * 元素保存在 int[] 环形缓冲区中，{@link #subscribe(IntSubscriber)} / {@link #subscribe(IntConsumer)} 全程不装箱，
+ * 只有通过 {@link #asFlux()} 接入 Reactor 算子时才转换为 Integer
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/19 15:10
+ * @Version V1.0
+ */
+public final class IntSink extends AbstractPrimitiveSink {
+
+    public interface IntSubscriber extends PrimitiveSubscriber {
+
+        void onNext(int value);
+    }
+
+    public static IntSink create() {
+        return create(Queues.SMALL_BUFFER_SIZE);
+    }
+
+    /**
+     * @param capacity 缓冲区大小，向上取整为 2 的幂
+     */
+    public static IntSink create(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+        }
+        return new IntSink(Queues.ceilingNextPowerOfTwo(capacity));
+    }
+
+    final int[] buffer;
+
+    IntSubscriber subscriber;
+
+    IntSink(int capacity) {
+        super(capacity);
+        this.buffer = new int[capacity];
+    }
+
+    public Sinks.EmitResult tryEmitNext(int value) {
+        Sinks.EmitResult result = enter();
+        if (result != null) {
+            return result;
+        }
+        long p = producerIndex;
+        buffer[(int) p & mask] = value;
+        return publish(p);
+    }
+
+    public void emitNext(int value, Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitNext(value);
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_NEXT, emitResult)) {
+                continue;
+            }
+            onNextFailed(emitResult, failureHandler);
+            return;
+        }
+    }
+
+    public void subscribe(IntSubscriber s) {
+        if (subscribe0(s)) {
+            subscriber = s;
+            onSubscribed(s);
+        }
+    }
+
+    /**
+     * @Description: 以无界请求订阅
+     * @author Levi.Ding
+     * @date 2026/10/19 15:00
+     * @param consumer :
+     * @return : reactor.core.Disposable
+     */
+    public Disposable subscribe(IntConsumer consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        LambdaIntSubscriber s = new LambdaIntSubscriber(consumer);
+        subscribe(s);
+        return s;
+    }
+
+    public Flux<Integer> asFlux() {
+        return new IntFlux(this);
+    }
+
+    @Override
+    void deliver(long index) {
+        subscriber.onNext(buffer[(int) index & mask]);
+    }
+
+    static final class LambdaIntSubscriber implements IntSubscriber, Disposable {
+
+        final IntConsumer consumer;
+
+        volatile Subscription s;
+
+        LambdaIntSubscriber(IntConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.s = s;
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(int value) {
+            consumer.accept(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Operators.onErrorDropped(t, Context.empty());
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void dispose() {
+            Subscription a = s;
+            if (a != null) {
+                a.cancel();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            Subscription a = s;
+            return a instanceof Disposable && ((Disposable) a).isDisposed();
+        }
+    }
+
+    /**
+     * 在边界处装箱，接入 Reactor 算子
+     */
+    static final class IntFlux extends Flux<Integer> {
+
+        final IntSink parent;
+
+        IntFlux(IntSink parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super Integer> actual) {
+            parent.subscribe(new BoxingSubscriber(actual));
+        }
+    }
+
+    static final class BoxingSubscriber implements IntSubscriber {
+
+        final CoreSubscriber<? super Integer> actual;
+
+        BoxingSubscriber(CoreSubscriber<? super Integer> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(int value) {
+            actual.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+    }
+}
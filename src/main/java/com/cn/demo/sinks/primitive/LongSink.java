@@ -0,0 +1,200 @@
+package com.cn.demo.sinks.primitive;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * @Description long 类型 Sink
+ *
+ * 元素保存在 long[] 环形缓冲区中，{@link #subscribe(LongSubscriber)} / {@link #subscribe(LongConsumer)} 全程不装箱，
+ * 只有通过 {@link #asFlux()} 接入 Reactor 算子时才转换为 Long
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/19 14:50
+ * @Version V1.0
+ */
+public final class LongSink extends AbstractPrimitiveSink {
+
+    public interface LongSubscriber extends PrimitiveSubscriber {
+
+        void onNext(long value);
+    }
+
+    public static LongSink create() {
+        return create(Queues.SMALL_BUFFER_SIZE);
+    }
+
+    /**
+     * @param capacity 缓冲区大小，向上取整为 2 的幂
+     */
+    public static LongSink create(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+        }
+        return new LongSink(Queues.ceilingNextPowerOfTwo(capacity));
+    }
+
+    final long[] buffer;
+
+    LongSubscriber subscriber;
+
+    LongSink(int capacity) {
+        super(capacity);
+        this.buffer = new long[capacity];
+    }
+
+    public Sinks.EmitResult tryEmitNext(long value) {
+        Sinks.EmitResult result = enter();
+        if (result != null) {
+            return result;
+        }
+        long p = producerIndex;
+        buffer[(int) p & mask] = value;
+        return publish(p);
+    }
+
+    public void emitNext(long value, Sinks.EmitFailureHandler failureHandler) {
+        for (;;) {
+            Sinks.EmitResult emitResult = tryEmitNext(value);
+            if (emitResult.isSuccess()) {
+                return;
+            }
+            if (failureHandler.onEmitFailure(SignalType.ON_NEXT, emitResult)) {
+                continue;
+            }
+            onNextFailed(emitResult, failureHandler);
+            return;
+        }
+    }
+
+    public void subscribe(LongSubscriber s) {
+        if (subscribe0(s)) {
+            subscriber = s;
+            onSubscribed(s);
+        }
+    }
+
+    /**
+     * @Description: 以无界请求订阅
+     * @author Levi.Ding
+     * @date 2026/10/19 15:00
+     * @param consumer :
+     * @return : reactor.core.Disposable
+     */
+    public Disposable subscribe(LongConsumer consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        LambdaLongSubscriber s = new LambdaLongSubscriber(consumer);
+        subscribe(s);
+        return s;
+    }
+
+    public Flux<Long> asFlux() {
+        return new LongFlux(this);
+    }
+
+    @Override
+    void deliver(long index) {
+        subscriber.onNext(buffer[(int) index & mask]);
+    }
+
+    static final class LambdaLongSubscriber implements LongSubscriber, Disposable {
+
+        final LongConsumer consumer;
+
+        volatile Subscription s;
+
+        LambdaLongSubscriber(LongConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.s = s;
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(long value) {
+            consumer.accept(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Operators.onErrorDropped(t, Context.empty());
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void dispose() {
+            Subscription a = s;
+            if (a != null) {
+                a.cancel();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            Subscription a = s;
+            return a instanceof Disposable && ((Disposable) a).isDisposed();
+        }
+    }
+
+    /**
+     * 在边界处装箱，接入 Reactor 算子
+     */
+    static final class LongFlux extends Flux<Long> {
+
+        final LongSink parent;
+
+        LongFlux(LongSink parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super Long> actual) {
+            parent.subscribe(new BoxingSubscriber(actual));
+        }
+    }
+
+    static final class BoxingSubscriber implements LongSubscriber {
+
+        final CoreSubscriber<? super Long> actual;
+
+        BoxingSubscriber(CoreSubscriber<? super Long> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(long value) {
+            actual.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+    }
+}
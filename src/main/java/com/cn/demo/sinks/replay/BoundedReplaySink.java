@@ -0,0 +1,462 @@
+package com.cn.demo.sinks.replay;
+
+import com.cn.demo.sinks.many.AbstractManySink;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.ToLongFunction;
+
+/**
+ * @Description 内存有界的 replay Sink
+ *
+ * Sinks.many().replay().all() 会一直持有所有发射过的元素，长期运行的热流最终会 OOM
+ *
+ * 当前实现同时按以下三个维度淘汰最早的元素
+ * 1、maxCount  环形缓冲区容量，写满后覆盖最早的元素
+ * 2、maxBytes  通过 sizer 估算元素大小，累计超过 maxBytes 时淘汰
+ * 3、maxAge    发射时淘汰超过 maxAge 的元素，新订阅者也会跳过已过期的元素
+ *
+ * 环形缓冲区在创建时一次性分配，淘汰只移动 head 指针，不产生任何分配
+ * 当前保留的字节数通过 {@link #retainedBytes()} 暴露，可直接注册为 Gauge
+ *
+ * 注) 单个元素超过 maxBytes 时会淘汰其他所有元素后单独保留；
+ *     消费速度慢于淘汰速度的订阅者会跳过已淘汰的元素(与 replay().limit() 一致)；
+ *     并发发射返回 FAIL_NON_SERIALIZED
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/18 16:40
+ * @Version V1.0
+ */
+public final class BoundedReplaySink<T> extends AbstractManySink<T> {
+
+    @SuppressWarnings("rawtypes")
+    static final ReplayInner[] EMPTY = new ReplayInner[0];
+
+    public static <T> BoundedReplaySink<T> create(int maxCount, long maxBytes, Duration maxAge, ToLongFunction<? super T> sizer) {
+        return create(maxCount, maxBytes, maxAge, sizer, Schedulers.parallel());
+    }
+
+    /**
+     * @Description: 创建 Sink
+     * @author Levi.Ding
+     * @date 2026/10/18 16:48
+     * @param maxCount : 最多保留的元素数量(环形缓冲区容量)
+     * @param maxBytes : 最多保留的估算字节数
+     * @param maxAge : 元素最长保留时间
+     * @param sizer : 元素大小估算
+     * @param clock : 用于获取当前时间的调度器
+     * @return : com.cn.demo.sinks.replay.BoundedReplaySink<T>
+     */
+    public static <T> BoundedReplaySink<T> create(int maxCount, long maxBytes, Duration maxAge, ToLongFunction<? super T> sizer, Scheduler clock) {
+        return new BoundedReplaySink<>(maxCount, maxBytes, maxAge, sizer, clock);
+    }
+
+    final int capacity;
+
+    final long maxBytes;
+
+    final long maxAgeMillis;
+
+    final ToLongFunction<? super T> sizer;
+
+    final Scheduler clock;
+
+    final AtomicReferenceArray<Object> values;
+
+    /**
+     * 订阅时需要读取，用于跳过过期元素
+     */
+    final AtomicLongArray timestamps;
+
+    /**
+     * 只在发射线程中读写
+     */
+    final long[] sizes;
+
+    /**
+     * 最早保留元素的序号
+     */
+    volatile long head;
+
+    /**
+     * 下一个写入元素的序号
+     */
+    volatile long tail;
+
+    volatile long retainedBytes;
+
+    volatile ReplayInner<T>[] subscribers;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<BoundedReplaySink, ReplayInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(BoundedReplaySink.class, ReplayInner[].class, "subscribers");
+
+    volatile int emitting;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<BoundedReplaySink> EMITTING =
+            AtomicIntegerFieldUpdater.newUpdater(BoundedReplaySink.class, "emitting");
+
+    volatile boolean done;
+
+    Throwable error;
+
+    BoundedReplaySink(int maxCount, long maxBytes, Duration maxAge, ToLongFunction<? super T> sizer, Scheduler clock) {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("maxCount > 0 required but it was " + maxCount);
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes > 0 required but it was " + maxBytes);
+        }
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("maxAge > 0 required but it was " + maxAge);
+        }
+        this.capacity = maxCount;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.sizer = Objects.requireNonNull(sizer, "sizer");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.values = new AtomicReferenceArray<>(maxCount);
+        this.timestamps = new AtomicLongArray(maxCount);
+        this.sizes = new long[maxCount];
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    /**
+     * @Description: 当前保留的估算字节数
+     * @author Levi.Ding
+     * @date 2026/10/18 16:52
+     * @return : long
+     */
+    public long retainedBytes() {
+        return retainedBytes;
+    }
+
+    public int retainedCount() {
+        return (int) (tail - head);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Objects.requireNonNull(t, "t");
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        try {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            long size = sizer.applyAsLong(t);
+            long now = clock.now(TimeUnit.MILLISECONDS);
+            long h = head;
+            long tl = tail;
+            long bytes = retainedBytes;
+            long cutoff = now - maxAgeMillis;
+            while (h != tl && (tl - h == capacity || bytes + size > maxBytes || timestamps.get(index(h)) < cutoff)) {
+                int i = index(h);
+                bytes -= sizes[i];
+                h++;
+                head = h;
+                values.lazySet(i, null);
+            }
+            int i = index(tl);
+            sizes[i] = size;
+            timestamps.set(i, now);
+            values.set(i, t);
+            retainedBytes = bytes + size;
+            tail = tl + 1;
+        }
+        finally {
+            EMITTING.set(this, 0);
+        }
+        for (ReplayInner<T> inner : subscribers) {
+            inner.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        return terminate(Objects.requireNonNull(error, "error"));
+    }
+
+    Sinks.EmitResult terminate(@Nullable Throwable e) {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        try {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            error = e;
+            done = true;
+        }
+        finally {
+            EMITTING.set(this, 0);
+        }
+        for (ReplayInner<T> inner : subscribers) {
+            inner.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return subscribers.length;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.TERMINATED) return done;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.BUFFERED) return retainedCount();
+        if (key == Attr.CAPACITY) return capacity;
+        return null;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        ReplayInner<T> inner = new ReplayInner<>(actual, this);
+        inner.cursor = firstAlive();
+        actual.onSubscribe(inner);
+        add(inner);
+        if (inner.isCancelled()) {
+            remove(inner);
+            return;
+        }
+        inner.drain();
+    }
+
+    int index(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    /**
+     * @Description: 新订阅者的起始位置，跳过已过期的元素
+     * @author Levi.Ding
+     * @date 2026/10/18 17:05
+     * @return : long
+     */
+    long firstAlive() {
+        long cutoff = clock.now(TimeUnit.MILLISECONDS) - maxAgeMillis;
+        for (;;) {
+            long h = head;
+            long tl = tail;
+            long s = h;
+            while (s != tl && timestamps.get(index(s)) < cutoff) {
+                s++;
+            }
+            if (head == h) {
+                return s;
+            }
+        }
+    }
+
+    void add(ReplayInner<T> inner) {
+        for (;;) {
+            ReplayInner<T>[] a = subscribers;
+            int n = a.length;
+            @SuppressWarnings("unchecked")
+            ReplayInner<T>[] b = new ReplayInner[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(ReplayInner<T> inner) {
+        for (;;) {
+            ReplayInner<T>[] a = subscribers;
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            ReplayInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new ReplayInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    static final class ReplayInner<T> implements Subscription {
+
+        final CoreSubscriber<? super T> actual;
+
+        final BoundedReplaySink<T> parent;
+
+        /**
+         * 下一个要读取的序号，只在 drain() 中修改
+         */
+        long cursor;
+
+        /**
+         * Long.MIN_VALUE 表示已取消
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<ReplayInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ReplayInner.class, "requested");
+
+        volatile int wip;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<ReplayInner> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(ReplayInner.class, "wip");
+
+        ReplayInner(CoreSubscriber<? super T> actual, BoundedReplaySink<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                for (;;) {
+                    long r = requested;
+                    if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (REQUESTED.compareAndSet(this, r, u)) {
+                        break;
+                    }
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (REQUESTED.getAndSet(this, Long.MIN_VALUE) != Long.MIN_VALUE) {
+                parent.remove(this);
+            }
+        }
+
+        boolean isCancelled() {
+            return requested == Long.MIN_VALUE;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            BoundedReplaySink<T> p = parent;
+            int missed = 1;
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                while (e != r) {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    boolean d = p.done;
+                    long seq = cursor;
+                    if (seq >= p.tail) {
+                        if (d) {
+                            finish();
+                            return;
+                        }
+                        break;
+                    }
+                    long h = p.head;
+                    if (seq < h) {
+                        cursor = h;
+                        continue;
+                    }
+                    Object v = p.values.get(p.index(seq));
+                    if (v == null || p.head > seq) {
+                        //读取过程中被淘汰
+                        cursor = p.head;
+                        continue;
+                    }
+                    cursor = seq + 1;
+                    actual.onNext((T) v);
+                    e++;
+                }
+                if (isCancelled()) {
+                    return;
+                }
+                if (p.done && cursor >= p.tail) {
+                    finish();
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    produced(e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void finish() {
+            parent.remove(this);
+            Throwable e = parent.error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+
+        void produced(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                    return;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - n)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,663 @@
+package com.cn.demo.sinks.replay;
+
+import com.cn.demo.sinks.many.AbstractManySink;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * @Description 基于内存映射文件的 replay Sink
+ *
+ * {@link BoundedReplaySink} 仍然把全部历史放在堆上，回放窗口受限于堆大小
+ *
+ * 当前实现
+ * 1、元素通过 {@link Codec} 序列化后顺序追加到分段的内存映射文件 ({@link FileChannel#map}) 中，记录格式 [int length][payload]
+ * 2、段写满后滚动创建新段，按 retainSegments / retainAge 删除最早的段；段的年龄按下一段的创建时间 (即该段最后一次写入的上界) 计算
+ * 3、堆上只保留最近 heapTail 个元素，实时订阅者直接从堆上读取；
+ *    后订阅者从最早的段开始回放，{@link Codec#decode(ByteBuffer)} 直接读取映射区域，不经过中间 byte[] 拷贝
+ *
+ * 注) 段以 mmap 方式读取，删除文件后已映射的区域在 POSIX 系统上依然可读，落后的订阅者可以读完当前段；
+ *     单条记录超过 segmentSize 时返回 FAIL_OVERFLOW；写文件失败时以 error 终止；并发发射返回 FAIL_NON_SERIALIZED；
+ *     回放只覆盖当前 Sink 的生命周期，创建时删除目录中残留的段文件 (上次进程未 dispose 就退出)，不做恢复
+ *
+ * @Author: Levi.Ding
+ * @Date: 2026/10/19 10:05
+ * @Version V1.0
+ */
+public final class MappedReplaySink<T> extends AbstractManySink<T> implements Disposable {
+
+    /**
+     * @Description 元素序列化
+     *
+     * encode 从 target 当前 position 开始写入 sizeOf(value) 个字节；
+     * decode 读取 source 的 position 到 limit，source 为映射区域的视图，不能在 decode 之外持有
+     */
+    public interface Codec<T> {
+
+        int sizeOf(T value);
+
+        void encode(T value, ByteBuffer target);
+
+        T decode(ByteBuffer source);
+    }
+
+    public static <T> Builder<T> builder(Path directory, Codec<T> codec) {
+        return new Builder<>(directory, codec);
+    }
+
+    @SuppressWarnings("rawtypes")
+    static final MappedInner[] EMPTY = new MappedInner[0];
+
+    static final int HEADER = 4;
+
+    final Path directory;
+
+    final Codec<T> codec;
+
+    final int segmentSize;
+
+    final int heapTail;
+
+    final int retainSegments;
+
+    final long retainAgeMillis;
+
+    /**
+     * 最近 heapTail 个元素，按 seq % heapTail 存放
+     */
+    final AtomicReferenceArray<Object> tailValues;
+
+    /**
+     * 堆上保留的最小序号，覆盖槽位前先推进
+     */
+    volatile long heapLow;
+
+    /**
+     * 下一个写入元素的序号
+     */
+    volatile long tail;
+
+    /**
+     * 保留的最早段，后订阅者从这里开始回放
+     */
+    volatile Segment first;
+
+    /**
+     * 当前写入段，只在发射线程中修改
+     */
+    Segment last;
+
+    int segmentCount;
+
+    volatile MappedInner<T>[] subscribers;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<MappedReplaySink, MappedInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(MappedReplaySink.class, MappedInner[].class, "subscribers");
+
+    volatile int emitting;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<MappedReplaySink> EMITTING =
+            AtomicIntegerFieldUpdater.newUpdater(MappedReplaySink.class, "emitting");
+
+    volatile boolean done;
+
+    volatile boolean disposed;
+
+    Throwable error;
+
+    MappedReplaySink(Builder<T> builder) throws IOException {
+        this.directory = builder.directory;
+        this.codec = builder.codec;
+        this.segmentSize = builder.segmentSize;
+        this.heapTail = builder.heapTail;
+        this.retainSegments = builder.retainSegments;
+        this.retainAgeMillis = builder.retainAge.toMillis();
+        this.tailValues = new AtomicReferenceArray<>(heapTail);
+        Files.createDirectories(directory);
+        deleteSegments(directory);
+        Segment s = openSegment(0L);
+        this.first = s;
+        this.last = s;
+        this.segmentCount = 1;
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitNext(T t) {
+        Objects.requireNonNull(t, "t");
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        IOException failure = null;
+        try {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            int len = codec.sizeOf(t);
+            if (len + HEADER > segmentSize) {
+                return Sinks.EmitResult.FAIL_OVERFLOW;
+            }
+            Segment s = last;
+            if (s.writePos + HEADER + len > segmentSize) {
+                try {
+                    s = roll();
+                }
+                catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure == null) {
+                long seq = tail;
+                int pos = s.writePos;
+                ByteBuffer w = s.writer;
+                w.putInt(pos, len);
+                ((Buffer) w).limit(pos + HEADER + len);
+                ((Buffer) w).position(pos + HEADER);
+                codec.encode(t, w);
+                s.writePos = pos + HEADER + len;
+                s.limit = s.writePos;
+
+                long low = seq - heapTail + 1;
+                if (low > heapLow) {
+                    heapLow = low;
+                }
+                tailValues.set((int) (seq % heapTail), t);
+                tail = seq + 1;
+            }
+        }
+        finally {
+            EMITTING.set(this, 0);
+        }
+        if (failure != null) {
+            terminate(failure);
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        for (MappedInner<T> inner : subscribers) {
+            inner.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    @Override
+    public Sinks.EmitResult tryEmitError(Throwable error) {
+        return terminate(Objects.requireNonNull(error, "error"));
+    }
+
+    Sinks.EmitResult terminate(@Nullable Throwable e) {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (!EMITTING.compareAndSet(this, 0, 1)) {
+            return Sinks.EmitResult.FAIL_NON_SERIALIZED;
+        }
+        try {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            error = e;
+            done = true;
+        }
+        finally {
+            EMITTING.set(this, 0);
+        }
+        for (MappedInner<T> inner : subscribers) {
+            inner.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    /**
+     * @Description: 终止当前 Sink 并删除所有段文件
+     * @author Levi.Ding
+     * @date 2026/10/19 10:40
+     * @return : void
+     */
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        //与发射线程竞争时等待其写完，FAIL_TERMINATED 说明已经终止
+        while (terminate(null) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.yield();
+        }
+        for (Segment s = first; s != null; s = s.next) {
+            s.delete();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public int currentSubscriberCount() {
+        return subscribers.length;
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Scannable.Attr key) {
+        if (key == Attr.TERMINATED) return done;
+        if (key == Attr.ERROR) return error;
+        if (key == Attr.BUFFERED) return (int) Math.min(tail - first.baseSeq, Integer.MAX_VALUE);
+        if (key == Attr.CAPACITY) return heapTail;
+        return null;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        MappedInner<T> inner = new MappedInner<>(actual, this, first);
+        actual.onSubscribe(inner);
+        add(inner);
+        if (inner.isCancelled()) {
+            remove(inner);
+            return;
+        }
+        inner.drain();
+    }
+
+    Segment roll() throws IOException {
+        Segment s = last;
+        Segment next = openSegment(tail);
+        s.next = next;
+        last = next;
+        segmentCount++;
+
+        long now = System.currentTimeMillis();
+        Segment f = first;
+        //f 的最后一条记录早于 f.next 的创建时间，按它判断整段是否过期
+        while (f != next && (segmentCount > retainSegments || f.next.createdMillis < now - retainAgeMillis)) {
+            first = f.next;
+            segmentCount--;
+            f.delete();
+            f = f.next;
+        }
+        return next;
+    }
+
+    static void deleteSegments(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.seg")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    Segment openSegment(long baseSeq) throws IOException {
+        Path file = directory.resolve(String.format("%020d.seg", baseSeq));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(baseSeq, file, buffer);
+        }
+    }
+
+    void add(MappedInner<T> inner) {
+        for (;;) {
+            MappedInner<T>[] a = subscribers;
+            int n = a.length;
+            @SuppressWarnings("unchecked")
+            MappedInner<T>[] b = new MappedInner[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(MappedInner<T> inner) {
+        for (;;) {
+            MappedInner<T>[] a = subscribers;
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            MappedInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new MappedInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    static final class Segment {
+
+        final long baseSeq;
+
+        final Path file;
+
+        final MappedByteBuffer buffer;
+
+        /**
+         * 发射线程专用视图
+         */
+        final ByteBuffer writer;
+
+        final long createdMillis;
+
+        /**
+         * 只在发射线程中读写
+         */
+        int writePos;
+
+        /**
+         * 已发布的写入位置，读取方只读到 limit
+         */
+        volatile int limit;
+
+        volatile Segment next;
+
+        Segment(long baseSeq, Path file, MappedByteBuffer buffer) {
+            this.baseSeq = baseSeq;
+            this.file = file;
+            this.buffer = buffer;
+            this.writer = buffer.duplicate();
+            this.createdMillis = System.currentTimeMillis();
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException e) {
+                Operators.onErrorDropped(e, Context.empty());
+            }
+        }
+    }
+
+    static final class MappedInner<T> implements Subscription {
+
+        final CoreSubscriber<? super T> actual;
+
+        final MappedReplaySink<T> parent;
+
+        /**
+         * 磁盘游标，只在 drain() 中修改；从堆上读取时同样推进，保证两者一致
+         */
+        Segment segment;
+
+        ByteBuffer view;
+
+        int pos;
+
+        long seq;
+
+        /**
+         * Long.MIN_VALUE 表示已取消
+         */
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<MappedInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(MappedInner.class, "requested");
+
+        volatile int wip;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<MappedInner> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(MappedInner.class, "wip");
+
+        MappedInner(CoreSubscriber<? super T> actual, MappedReplaySink<T> parent, Segment start) {
+            this.actual = actual;
+            this.parent = parent;
+            this.segment = start;
+            this.view = start.buffer.duplicate();
+            this.seq = start.baseSeq;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                for (;;) {
+                    long r = requested;
+                    if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (REQUESTED.compareAndSet(this, r, u)) {
+                        break;
+                    }
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (REQUESTED.getAndSet(this, Long.MIN_VALUE) != Long.MIN_VALUE) {
+                parent.remove(this);
+            }
+        }
+
+        boolean isCancelled() {
+            return requested == Long.MIN_VALUE;
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            MappedReplaySink<T> p = parent;
+            int missed = 1;
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                while (e != r) {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    boolean d = p.done;
+                    if (seq >= p.tail) {
+                        if (d) {
+                            finish();
+                            return;
+                        }
+                        break;
+                    }
+                    T v;
+                    try {
+                        v = next();
+                    }
+                    catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        p.remove(this);
+                        actual.onError(Operators.onOperatorError(this, ex, actual.currentContext()));
+                        return;
+                    }
+                    actual.onNext(v);
+                    e++;
+                }
+                if (isCancelled()) {
+                    return;
+                }
+                if (p.done && seq >= p.tail) {
+                    finish();
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    produced(e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * @Description: 读取 seq 对应的元素并推进游标，调用前需保证 seq < tail
+         * @author Levi.Ding
+         * @date 2026/10/19 11:02
+         * @return : T
+         */
+        @SuppressWarnings("unchecked")
+        T next() {
+            MappedReplaySink<T> p = parent;
+            if (pos >= segment.limit) {
+                //当前段已读完，seq < tail 说明已经滚动到下一段
+                Segment n = segment.next;
+                segment = n;
+                view = n.buffer.duplicate();
+                pos = 0;
+            }
+            int len = view.getInt(pos);
+            int start = pos + HEADER;
+            pos = start + len;
+            long s = seq++;
+
+            if (s >= p.heapLow) {
+                Object v = p.tailValues.get((int) (s % p.heapTail));
+                if (s >= p.heapLow) {
+                    return (T) v;
+                }
+            }
+            ((Buffer) view).limit(start + len);
+            ((Buffer) view).position(start);
+            T v = p.codec.decode(view);
+            ((Buffer) view).limit(view.capacity());
+            return v;
+        }
+
+        void finish() {
+            parent.remove(this);
+            Throwable e = parent.error;
+            if (e != null) {
+                actual.onError(e);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+
+        void produced(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == Long.MIN_VALUE || r == Long.MAX_VALUE) {
+                    return;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - n)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public static final class Builder<T> {
+
+        final Path directory;
+
+        final Codec<T> codec;
+
+        int segmentSize = 64 * 1024 * 1024;
+
+        int heapTail = 1024;
+
+        int retainSegments = 16;
+
+        Duration retainAge = Duration.ofHours(6);
+
+        Builder(Path directory, Codec<T> codec) {
+            this.directory = Objects.requireNonNull(directory, "directory");
+            this.codec = Objects.requireNonNull(codec, "codec");
+        }
+
+        /**
+         * 单个段文件大小，默认 64MB
+         */
+        public Builder<T> segmentSize(int segmentSize) {
+            if (segmentSize <= HEADER) {
+                throw new IllegalArgumentException("segmentSize > " + HEADER + " required but it was " + segmentSize);
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * 堆上保留的最近元素数量，默认 1024
+         */
+        public Builder<T> heapTail(int heapTail) {
+            if (heapTail <= 0) {
+                throw new IllegalArgumentException("heapTail > 0 required but it was " + heapTail);
+            }
+            this.heapTail = heapTail;
+            return this;
+        }
+
+        /**
+         * 最多保留的段数量，默认 16
+         */
+        public Builder<T> retainSegments(int retainSegments) {
+            if (retainSegments <= 0) {
+                throw new IllegalArgumentException("retainSegments > 0 required but it was " + retainSegments);
+            }
+            this.retainSegments = retainSegments;
+            return this;
+        }
+
+        /**
+         * 段的最长保留时间，默认 6 小时，从该段最后一次写入算起；正在写入的段不会被删除
+         */
+        public Builder<T> retainAge(Duration retainAge) {
+            if (retainAge.isNegative() || retainAge.isZero()) {
+                throw new IllegalArgumentException("retainAge > 0 required but it was " + retainAge);
+            }
+            this.retainAge = retainAge;
+            return this;
+        }
+
+        public MappedReplaySink<T> build() throws IOException {
+            return new MappedReplaySink<>(this);
+        }
+    }
+}
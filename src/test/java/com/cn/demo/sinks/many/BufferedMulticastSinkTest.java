@@ -0,0 +1,97 @@
+package com.cn.demo.sinks.many;
+
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link BufferedMulticastSink}.
+ */
+public class BufferedMulticastSinkTest
+{
+    static final int COUNT = 20_000;
+
+    static final long SLOW_SLEEP_MILLIS = 5;
+
+    /**
+     * 慢订阅者每个元素 sleep 5ms，按 SinkManyEmitterProcessor 的最小 requested 模式，快订阅者要等慢订阅者收到接近 COUNT 个元素后才能完成；
+     * 这里快订阅者完成时，慢订阅者收到的元素应当远少于 COUNT / 10
+     */
+    @Test
+    public void slowSubscriberDoesNotThrottleFastSubscriber() throws InterruptedException
+    {
+        BufferedMulticastSink<Integer> sink = BufferedMulticastSink.create(16, BufferedMulticastSink.OverflowStrategy.DROP_OLDEST);
+
+        AtomicLong fast = new AtomicLong();
+        AtomicLong slow = new AtomicLong();
+        AtomicLong slowAtFastDone = new AtomicLong(-1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+        sink.asFlux(COUNT, BufferedMulticastSink.OverflowStrategy.DROP_LATEST)
+                .subscribe(i -> fast.incrementAndGet(), e -> fastDone.countDown(), () -> {
+                    slowAtFastDone.set(slow.get());
+                    fastDone.countDown();
+                });
+
+        sink.asFlux()
+                .subscribe(i -> {
+                    sleep(SLOW_SLEEP_MILLIS);
+                    slow.incrementAndGet();
+                });
+
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(Sinks.EmitResult.OK, sink.tryEmitNext(i));
+        }
+        assertEquals(Sinks.EmitResult.OK, sink.tryEmitComplete());
+
+        assertTrue("fast subscriber did not complete", fastDone.await(30, TimeUnit.SECONDS));
+
+        assertEquals(COUNT, fast.get());
+        assertTrue("fast subscriber throttled, slow subscriber had received " + slowAtFastDone.get(),
+                slowAtFastDone.get() >= 0 && slowAtFastDone.get() < COUNT / 10);
+    }
+
+    @Test
+    public void disconnectOnlyTheLaggard() throws InterruptedException
+    {
+        BufferedMulticastSink<Integer> sink = BufferedMulticastSink.create(COUNT, BufferedMulticastSink.OverflowStrategy.DROP_LATEST);
+
+        AtomicLong fast = new AtomicLong();
+        CountDownLatch fastDone = new CountDownLatch(1);
+        sink.asFlux().subscribe(i -> fast.incrementAndGet(), e -> fastDone.countDown(), fastDone::countDown);
+
+        AtomicReference<Throwable> slowError = new AtomicReference<>();
+        CountDownLatch slowDone = new CountDownLatch(1);
+        sink.asFlux(16, BufferedMulticastSink.OverflowStrategy.DISCONNECT)
+                .subscribe(i -> sleep(SLOW_SLEEP_MILLIS), e -> {
+                    slowError.set(e);
+                    slowDone.countDown();
+                }, slowDone::countDown);
+
+        for (int i = 0; i < COUNT; i++) {
+            sink.tryEmitNext(i);
+        }
+        sink.tryEmitComplete();
+
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+        assertEquals(COUNT, fast.get());
+        assertTrue(slowDone.await(5, TimeUnit.SECONDS));
+        assertTrue(Exceptions.isOverflow(slowError.get()));
+    }
+
+    static void sleep(long millis)
+    {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}